@@ -70,13 +70,25 @@ public class StringSearcher {
     }
     myPatternArray = chars;
     myPatternLength = myPatternArray.length;
-    Arrays.fill(mySearchTable, -1);
+    fillSearchTable(mySearchTable, myPatternArray, myForwardDirection);
     myJavaIdentifier = lookForJavaIdentifiersOnlyIfPossible &&
                        (pattern.isEmpty() ||
                         Character.isJavaIdentifierPart(pattern.charAt(0)) &&
                         Character.isJavaIdentifierPart(pattern.charAt(pattern.length() - 1)));
   }
 
+  // Horspool bad character shifts for ASCII chars, computed once so the table is never mutated during scans
+  private static void fillSearchTable(@Nonnull int[] table, @Nonnull char[] pattern, boolean forwardDirection) {
+    int length = pattern.length;
+    Arrays.fill(table, length);
+    for (int i = 0; i < length - 1; i++) {
+      char c = forwardDirection ? pattern[i] : pattern[length - 1 - i];
+      if (c < 128) {
+        table[c] = length - 1 - i;
+      }
+    }
+  }
+
   @Nonnull
   public String getPattern(){
     return myPattern;
@@ -132,6 +144,10 @@ public class StringSearcher {
         // optimization
         return StringUtil.indexOf(text, myPatternArray[0], _start, _end, myCaseSensitive);
       }
+      if (myCaseSensitive && textArray == null && _end == textLength && text instanceof String) {
+        // String.indexOf is a JIT intrinsic which compares many chars per instruction
+        return ((String)text).indexOf(myPattern, _start);
+      }
       int start = _start;
       int end = _end - myPatternLength;
 
@@ -151,18 +167,7 @@ public class StringSearcher {
           }
         }
 
-        int step = lastChar < 128 ? mySearchTable[lastChar] : 1;
-
-        if (step <= 0) {
-          int index;
-          for (index = myPatternLength - 2; index >= 0; index--) {
-            if (myPatternArray[index] == lastChar) break;
-          }
-          step = myPatternLength - index - 1;
-          mySearchTable[lastChar] = step;
-        }
-
-        start += step;
+        start += lastChar < 128 ? mySearchTable[lastChar] : 1;
       }
       return -1;
     }
@@ -183,18 +188,7 @@ public class StringSearcher {
           if (i < 0) return end - start - myPatternLength + 1;
         }
 
-        int step = lastChar < 128 ? mySearchTable[lastChar] : 1;
-
-        if (step <= 0) {
-          int index;
-          for (index = myPatternLength - 2; index >= 0; index--) {
-            if (myPatternArray[myPatternLength - 1 - index] == lastChar) break;
-          }
-          step = myPatternLength - index - 1;
-          mySearchTable[lastChar] = step;
-        }
-
-        start += step;
+        start += lastChar < 128 ? mySearchTable[lastChar] : 1;
       }
       return -1;
     }
@@ -111,16 +111,10 @@ public class SoftWrapsStorage implements Dumpable {
     if (startIndex >= myWraps.size()) {
       return 0;
     }
-    int result = 0;
-    int endIndex = startIndex;
-    for (; endIndex < myWraps.size(); endIndex++) {
-      SoftWrap softWrap = myWraps.get(endIndex);
-      if (softWrap.getStart() > endOffset) {
-        break;
-      }
-      result++;
-    }
-    return result;
+    // the range usually spans till the document end, so use binary search instead of walking all soft wraps after the start
+    int endIndex = getSoftWrapIndex(endOffset);
+    endIndex = endIndex >= 0 ? endIndex + 1 : -endIndex - 1;
+    return Math.max(0, endIndex - startIndex);
   }
 
   /**
@@ -18,16 +18,15 @@ package consulo.codeEditor.impl.softwrap.mapping;
 import consulo.application.util.Dumpable;
 import consulo.codeEditor.EditorEx;
 import consulo.codeEditor.SoftWrap;
-import consulo.codeEditor.impl.TextChangeImpl;
 import consulo.codeEditor.impl.softwrap.SoftWrapImpl;
 import consulo.codeEditor.impl.softwrap.SoftWrapsStorage;
 import consulo.logging.Logger;
 import consulo.logging.attachment.AttachmentFactory;
+import consulo.util.lang.StringUtil;
 
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 public class CachingSoftWrapDataMapper implements SoftWrapAwareDocumentParsingListener, Dumpable {
@@ -43,22 +42,28 @@ public class CachingSoftWrapDataMapper implements SoftWrapAwareDocumentParsingLi
   }
 
   public boolean matchesOldSoftWrap(SoftWrap newSoftWrap, int lengthDiff) {
-    return Collections.binarySearch(myAffectedByUpdateSoftWraps, new SoftWrapImpl(new TextChangeImpl(newSoftWrap.getText(), newSoftWrap.getStart() - lengthDiff, newSoftWrap.getEnd() - lengthDiff),
-                                                                                  newSoftWrap.getIndentInColumns(), newSoftWrap.getIndentInPixels()), (o1, o2) -> {
-      int offsetDiff = o1.getStart() - o2.getStart();
-      if (offsetDiff != 0) {
-        return offsetDiff;
+    // affected soft wraps are sorted by offset and offsets are unique, so only the one at the translated offset can match;
+    // search by offset directly to avoid allocating a probe soft wrap and soft wrap texts on each comparison
+    int offset = newSoftWrap.getStart() - lengthDiff;
+    int start = 0;
+    int end = myAffectedByUpdateSoftWraps.size() - 1;
+    while (start <= end) {
+      int i = (start + end) >>> 1;
+      SoftWrapImpl oldSoftWrap = myAffectedByUpdateSoftWraps.get(i);
+      int oldOffset = oldSoftWrap.getStart();
+      if (oldOffset < offset) {
+        start = i + 1;
       }
-      int textDiff = o1.getText().toString().compareTo(o2.getText().toString());
-      if (textDiff != 0) {
-        return textDiff;
+      else if (oldOffset > offset) {
+        end = i - 1;
       }
-      int colIndentDiff = o1.getIndentInColumns() - o2.getIndentInColumns();
-      if (colIndentDiff != 0) {
-        return colIndentDiff;
+      else {
+        return oldSoftWrap.getIndentInColumns() == newSoftWrap.getIndentInColumns() &&
+               oldSoftWrap.getIndentInPixels() == newSoftWrap.getIndentInPixels() &&
+               StringUtil.equals(oldSoftWrap.getText(), newSoftWrap.getText());
       }
-      return o1.getIndentInPixels() - o2.getIndentInPixels();
-    }) >= 0;
+    }
+    return false;
   }
 
   @Override
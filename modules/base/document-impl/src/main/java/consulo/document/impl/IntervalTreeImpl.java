@@ -24,7 +24,6 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -33,7 +32,9 @@ public abstract class IntervalTreeImpl<T> extends RedBlackTree<T> implements Int
   static final Logger LOG = Logger.getInstance(IntervalTreeImpl.class);
   static final boolean DEBUG = LOG.isDebugEnabled() || ApplicationManager.getApplication() != null && ApplicationManager.getApplication().isUnitTestMode();
   private int keySize; // number of all intervals, counting all duplicates, some of them maybe gced
-  final ReadWriteLock l = new ReentrantReadWriteLock();
+  final ReentrantReadWriteLock l = new ReentrantReadWriteLock();
+  // false only when the tree has no intervals; unlike root, it stays true while nodes are removed and re-inserted under the write lock
+  private volatile boolean myMayHaveIntervals;
 
   protected abstract int compareEqualStartIntervals(@Nonnull IntervalNode<T> i1, @Nonnull IntervalNode<T> i2);
 
@@ -431,8 +432,21 @@ public abstract class IntervalTreeImpl<T> extends RedBlackTree<T> implements Int
     return (IntervalNode<T>)root;
   }
 
+  // queries against an empty tree (the common case for most markup models) never contend with writers
+  private boolean isEmptyWithoutLock() {
+    return !myMayHaveIntervals;
+  }
+
+  // run under write lock, only after a complete removal: nested in another write operation the tree may be re-inserting its nodes
+  private void updateMayHaveIntervals() {
+    if (root == null && l.getWriteHoldCount() == 1) {
+      myMayHaveIntervals = false;
+    }
+  }
+
   @Override
   public boolean processAll(@Nonnull Processor<? super T> processor) {
+    if (isEmptyWithoutLock()) return true;
     try {
       l.readLock().lock();
       checkMax(true);
@@ -456,6 +470,7 @@ public abstract class IntervalTreeImpl<T> extends RedBlackTree<T> implements Int
 
   @Override
   public boolean processOverlappingWith(int start, int end, @Nonnull Processor<? super T> processor) {
+    if (isEmptyWithoutLock()) return true;
     try {
       l.readLock().lock();
       checkMax(true);
@@ -495,6 +510,7 @@ public abstract class IntervalTreeImpl<T> extends RedBlackTree<T> implements Int
 
   @Override
   public boolean processOverlappingWithOutside(int start, int end, @Nonnull Processor<? super T> processor) {
+    if (isEmptyWithoutLock()) return true;
     try {
       l.readLock().lock();
       checkMax(true);
@@ -532,6 +548,7 @@ public abstract class IntervalTreeImpl<T> extends RedBlackTree<T> implements Int
 
   @Override
   public boolean processContaining(int offset, @Nonnull Processor<? super T> processor) {
+    if (isEmptyWithoutLock()) return true;
     try {
       l.readLock().lock();
       checkMax(true);
@@ -571,6 +588,10 @@ public abstract class IntervalTreeImpl<T> extends RedBlackTree<T> implements Int
 
   @Nonnull
   public MarkupIterator<T> overlappingIterator(@Nonnull final TextRangeInterval rangeInterval, @Nullable Predicate<IntervalNode<T>> nodeFilter) {
+    if (isEmptyWithoutLock()) {
+      //noinspection unchecked
+      return MarkupIterator.EMPTY;
+    }
     l.readLock().lock();
 
     try {
@@ -714,6 +735,7 @@ public abstract class IntervalTreeImpl<T> extends RedBlackTree<T> implements Int
     node.setLeft(null);
     node.setRight(null);
 
+    myMayHaveIntervals = true;
     List<IntervalNode<T>> gced = new SmartList<>();
     if (root == null) {
       root = node;
@@ -957,6 +979,7 @@ public abstract class IntervalTreeImpl<T> extends RedBlackTree<T> implements Int
 
       node.removeInterval(interval);
       setNode(interval, null);
+      updateMayHaveIntervals();
 
       checkMax(true);
       return true;
@@ -1294,6 +1317,7 @@ public abstract class IntervalTreeImpl<T> extends RedBlackTree<T> implements Int
     try {
       super.clear();
       keySize = 0;
+      updateMayHaveIntervals();
     }
     finally {
       l.writeLock().unlock();
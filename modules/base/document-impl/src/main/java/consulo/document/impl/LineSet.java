@@ -15,12 +15,9 @@
  */
 package consulo.document.impl;
 
-import consulo.application.util.LineTokenizer;
 import consulo.document.internal.LineIterator;
-import consulo.util.collection.primitive.bytes.ByteList;
-import consulo.util.collection.primitive.bytes.ByteLists;
+import consulo.util.collection.ArrayUtil;
 import consulo.util.collection.primitive.ints.IntList;
-import consulo.util.collection.primitive.ints.IntLists;
 import consulo.util.lang.BitUtil;
 import consulo.util.lang.CharArrayUtil;
 import consulo.util.lang.MergingCharSequence;
@@ -38,6 +35,7 @@ import java.util.Arrays;
 public class LineSet {
   private static final int MODIFIED_MASK = 0x4;
   private static final int SEPARATOR_MASK = 0x3;
+  private static final int SCAN_CHUNK_SIZE = 8192;
 
   private final int[] myStarts;
   private final byte[] myFlags; // MODIFIED_MASK bit is for is/setModified(line); SEPARATOR_MASK 2 bits stores line separator length: 0..2
@@ -55,16 +53,76 @@ public class LineSet {
 
   @Nonnull
   private static LineSet createLineSet(@Nonnull CharSequence text, boolean markModified) {
-    IntList starts = IntLists.newArrayList();
-    ByteList flags = ByteLists.newArrayList();
-
-    LineTokenizer lineTokenizer = new LineTokenizer(text);
-    while (!lineTokenizer.atEnd()) {
-      starts.add(lineTokenizer.getOffset());
-      flags.add((byte)(lineTokenizer.getLineSeparatorLength() | (markModified ? MODIFIED_MASK : 0)));
-      lineTokenizer.advance();
+    // same line breaking rules as LineTokenizer, but the text is copied out in chunks instead of going through CharSequence.charAt
+    // for every char, which is costly for the rope-like texts of big documents
+    int length = text.length();
+    if (length == 0) {
+      return new LineSet(ArrayUtil.EMPTY_INT_ARRAY, ArrayUtil.EMPTY_BYTE_ARRAY, 0);
+    }
+    LineSetBuilder builder = new LineSetBuilder(Math.max(16, length / 40), markModified);
+    int lineStart = 0;
+    boolean afterCR = false;
+
+    char[] buffer = new char[Math.min(length, SCAN_CHUNK_SIZE)];
+    for (int chunkStart = 0; chunkStart < length; chunkStart += buffer.length) {
+      int chunkLength = Math.min(buffer.length, length - chunkStart);
+      CharArrayUtil.getChars(text, buffer, chunkStart, 0, chunkLength);
+      for (int i = 0; i < chunkLength; i++) {
+        char c = buffer[i];
+        if (afterCR) {
+          afterCR = false;
+          int separatorLength = c == '\n' ? 2 : 1;
+          builder.addLine(lineStart, separatorLength);
+          lineStart = chunkStart + i - 1 + separatorLength;
+          if (c == '\n') continue;
+        }
+        if (c == '\n') {
+          builder.addLine(lineStart, 1);
+          lineStart = chunkStart + i + 1;
+        }
+        else if (c == '\r') {
+          afterCR = true;
+        }
+      }
+    }
+    if (afterCR) {
+      builder.addLine(lineStart, 1);
+    }
+    else if (lineStart < length) {
+      builder.addLine(lineStart, 0);
+    }
+    return builder.build(length);
+  }
+
+  private static class LineSetBuilder {
+    private final byte myModifiedFlag;
+    private int[] myStarts;
+    private byte[] myFlags;
+    private int myCount;
+
+    LineSetBuilder(int initialCapacity, boolean markModified) {
+      myModifiedFlag = markModified ? (byte)MODIFIED_MASK : 0;
+      myStarts = new int[initialCapacity];
+      myFlags = new byte[initialCapacity];
+    }
+
+    void addLine(int start, int separatorLength) {
+      if (myCount == myStarts.length) {
+        int newCapacity = myCount + (myCount >> 1) + 1;
+        myStarts = Arrays.copyOf(myStarts, newCapacity);
+        myFlags = Arrays.copyOf(myFlags, newCapacity);
+      }
+      myStarts[myCount] = start;
+      myFlags[myCount] = (byte)(separatorLength | myModifiedFlag);
+      myCount++;
+    }
+
+    @Nonnull
+    LineSet build(int length) {
+      int[] starts = myCount == myStarts.length ? myStarts : Arrays.copyOf(myStarts, myCount);
+      byte[] flags = myCount == myFlags.length ? myFlags : Arrays.copyOf(myFlags, myCount);
+      return new LineSet(starts, flags, length);
     }
-    return new LineSet(starts.toArray(), flags.toArray(), text.length());
   }
 
   @Nonnull
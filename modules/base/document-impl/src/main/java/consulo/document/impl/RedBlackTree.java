@@ -30,7 +30,8 @@ public abstract class RedBlackTree<K> extends AtomicInteger {
   public static boolean VERIFY;
   private static final int INDENT_STEP = 4;
   private int nodeSize; // number of nodes
-  protected Node<K> root;
+  // volatile so that readers can see an empty tree without taking the subclass lock
+  protected volatile Node<K> root;
 
   RedBlackTree() {
     root = null;
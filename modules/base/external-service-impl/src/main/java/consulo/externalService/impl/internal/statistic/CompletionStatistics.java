@@ -20,6 +20,9 @@ package consulo.externalService.impl.internal.statistic;
  */
 public class CompletionStatistics extends CumulativeStatistics {
   public int sparedCharacters = 0;
+  public int calculations = 0;
+  public long firstItemTimeMs = 0;
+  public long calculationTimeMs = 0;
 
   public void registerInvocation(int spared) {
     registerInvocation();
@@ -27,4 +30,10 @@ public class CompletionStatistics extends CumulativeStatistics {
       sparedCharacters += spared;
     }
   }
+
+  public void registerCalculation(long firstItemMs, long totalMs) {
+    calculations++;
+    firstItemTimeMs += firstItemMs;
+    calculationTimeMs += totalMs;
+  }
 }
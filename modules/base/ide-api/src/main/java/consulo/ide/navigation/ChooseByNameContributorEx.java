@@ -13,7 +13,9 @@ import consulo.util.collection.ArrayUtil;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.BiPredicate;
 
 public interface ChooseByNameContributorEx extends ChooseByNameContributor {
 
@@ -21,6 +23,25 @@ public interface ChooseByNameContributorEx extends ChooseByNameContributor {
 
   void processElementsWithName(@Nonnull String name, @Nonnull Processor<NavigationItem> processor, @Nonnull FindSymbolParameters parameters);
 
+  /**
+   * Processes elements for several names at once, passing each element together with its name; the processor returns false to stop.
+   * Contributors backed by a stub index should override it with {@link consulo.language.psi.stub.StubIndex#processElementsForKeys},
+   * which reads the stub tree of every containing file once for all the names.
+   */
+  default void processElementsWithNames(@Nonnull Collection<String> names,
+                                        @Nonnull BiPredicate<? super String, ? super NavigationItem> processor,
+                                        @Nonnull FindSymbolParameters parameters) {
+    boolean[] stopped = {false};
+    for (String name : names) {
+      processElementsWithName(name, item -> {
+        if (processor.test(name, item)) return true;
+        stopped[0] = true;
+        return false;
+      }, parameters);
+      if (stopped[0]) return;
+    }
+  }
+
   /**
    * @deprecated Use {@link #processNames(Processor, GlobalSearchScope, IdFilter)} instead
    */
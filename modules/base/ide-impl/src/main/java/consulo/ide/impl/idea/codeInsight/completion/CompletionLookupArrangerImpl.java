@@ -46,6 +46,8 @@ public class CompletionLookupArrangerImpl extends LookupArranger implements Comp
   public static final String OVERFLOW_MESSAGE = "Not all variants are shown, please type more letters to see the rest";
   private static final UISettings ourUISettings = UISettings.getInstance();
   private final List<LookupElement> myFrozenItems = new ArrayList<>();
+  // all items in presentation order, maintained on insertion so that arranging doesn't re-sort every matching item
+  private final List<LookupElement> myItemsByPresentation = new ArrayList<>();
   private final int myLimit = Registry.intValue("ide.completion.variant.limit");
   private boolean myOverflow;
 
@@ -75,6 +77,55 @@ public class CompletionLookupArrangerImpl extends LookupArranger implements Comp
     return inputBySorter;
   }
 
+  /**
+   * Same as {@code groupItemsBySorter(getMatchingItems())}, but takes the presentation order from {@link #myItemsByPresentation}
+   * instead of sorting. Matching items are a subsequence of {@link #myItems}, so the result is identical to the stable sort.
+   */
+  private MultiMap<CompletionSorterImpl, LookupElement> groupMatchingItemsBySorter() {
+    List<LookupElement> matching = getMatchingItems();
+    MultiMap<CompletionSorterImpl, LookupElement> inputBySorter = MultiMap.createLinked();
+    if (matching.isEmpty()) return inputBySorter;
+
+    Set<LookupElement> matchingSet = ContainerUtil.newIdentityTroveSet(matching);
+    Map<CompletionSorterImpl, List<LookupElement>> middleMatches = new HashMap<>();
+    for (LookupElement element : myItemsByPresentation) {
+      if (!matchingSet.contains(element)) continue;
+
+      CompletionSorterImpl sorter = obtainSorter(element);
+      if (itemMatcher(element).isStartMatch(element)) {
+        inputBySorter.putValue(sorter, element);
+      }
+      else {
+        middleMatches.computeIfAbsent(sorter, k -> new ArrayList<>()).add(element);
+      }
+    }
+    for (Map.Entry<CompletionSorterImpl, List<LookupElement>> entry : middleMatches.entrySet()) {
+      inputBySorter.putValues(entry.getKey(), entry.getValue());
+    }
+    return inputBySorter;
+  }
+
+  private void insertByPresentation(LookupElement element) {
+    int low = 0;
+    int high = myItemsByPresentation.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (BY_PRESENTATION_COMPARATOR.compare(myItemsByPresentation.get(mid), element) <= 0) {
+        low = mid + 1;
+      }
+      else {
+        high = mid;
+      }
+    }
+    myItemsByPresentation.add(low, element);
+  }
+
+  private void retainItemsByPresentation(Collection<LookupElement> items) {
+    if (myItemsByPresentation.size() == items.size()) return;
+    Set<LookupElement> itemSet = ContainerUtil.newIdentityTroveSet(items);
+    myItemsByPresentation.removeIf(element -> !itemSet.contains(element));
+  }
+
   @Nonnull
   private CompletionSorterImpl obtainSorter(LookupElement element) {
     //noinspection ConstantConditions
@@ -155,6 +206,7 @@ public class CompletionLookupArrangerImpl extends LookupArranger implements Comp
 
     PresentationInvariant invariant = new PresentationInvariant(presentation.getItemText(), presentation.getTailText(), presentation.getTypeText());
     element.putUserData(PRESENTATION_INVARIANT, invariant);
+    insertByPresentation(element);
 
     CompletionSorterImpl sorter = obtainSorter(element);
     Classifier<LookupElement> classifier = myClassifiers.get(sorter);
@@ -177,8 +229,7 @@ public class CompletionLookupArrangerImpl extends LookupArranger implements Comp
   private void trimToLimit(ProcessingContext context) {
     if (myItems.size() < myLimit) return;
 
-    List<LookupElement> items = getMatchingItems();
-    Iterator<LookupElement> iterator = sortByRelevance(groupItemsBySorter(items)).iterator();
+    Iterator<LookupElement> iterator = sortByRelevance(groupMatchingItemsBySorter()).iterator();
 
     final Set<LookupElement> retainedSet = ContainerUtil.newIdentityTroveSet();
     retainedSet.addAll(getPrefixItems(true));
@@ -194,6 +245,7 @@ public class CompletionLookupArrangerImpl extends LookupArranger implements Comp
     for (LookupElement element : removed) {
       removeItem(element, context);
     }
+    retainItemsByPresentation(myItems);
 
     if (!myOverflow) {
       myOverflow = true;
@@ -290,7 +342,7 @@ public class CompletionLookupArrangerImpl extends LookupArranger implements Comp
   @Nonnull
   private Pair<List<LookupElement>, Integer> doArrangeItems(@Nonnull LookupElementListPresenter lookup, boolean onExplicitAction) {
     List<LookupElement> items = getMatchingItems();
-    Iterable<LookupElement> sortedByRelevance = sortByRelevance(groupItemsBySorter(items));
+    Iterable<LookupElement> sortedByRelevance = sortByRelevance(groupMatchingItemsBySorter());
 
     LookupElement relevantSelection = findMostRelevantItem(sortedByRelevance);
     List<LookupElement> listModel = isAlphaSorted() ? sortByPresentation(items) : fillModelByRelevance(lookup, ContainerUtil.newIdentityTroveSet(items), sortedByRelevance, relevantSelection);
@@ -513,9 +565,17 @@ public class CompletionLookupArrangerImpl extends LookupArranger implements Comp
   public void prefixChanged(Lookup lookup) {
     myPrefixChanges++;
     myFrozenItems.clear();
+    // prefixReplaced may have dropped items which no longer match
+    retainItemsByPresentation(myItems);
     super.prefixChanged(lookup);
   }
 
+  @Override
+  public void clear() {
+    super.clear();
+    myItemsByPresentation.clear();
+  }
+
   @Override
   public void prefixTruncated(@Nonnull LookupEx lookup, int hideOffset) {
     if (hideOffset < lookup.getEditor().getCaretModel().getOffset()) {
@@ -9,6 +9,7 @@ import consulo.ide.impl.idea.codeInsight.hint.EditorHintListener;
 import consulo.language.editor.completion.lookup.*;
 import consulo.language.editor.hint.HintManager;
 import consulo.application.impl.internal.JobScheduler;
+import consulo.externalService.impl.internal.statistic.FeatureUsageTrackerImpl;
 import consulo.externalService.statistic.FeatureUsageTracker;
 import consulo.application.AllIcons;
 import consulo.language.editor.completion.*;
@@ -121,6 +122,8 @@ public class CompletionProgressIndicator extends ProgressIndicatorBase implement
   private final Queue<Runnable> myAdvertiserChanges = new ConcurrentLinkedQueue<>();
   private final List<CompletionResult> myDelayedMiddleMatches = new ArrayList<>();
   private final int myStartCaret;
+  private final long myStartNanos = System.nanoTime();
+  private volatile long myFirstItemNanos;
   private final CompletionThreadingBase myThreading;
   private final Object myLock = ObjectUtil.sentinel("CompletionProgressIndicator");
 
@@ -452,6 +455,7 @@ public class CompletionProgressIndicator extends ProgressIndicatorBase implement
     myCount++; // invoked from a single thread
 
     if (myCount == 1) {
+      myFirstItemNanos = System.nanoTime();
       JobScheduler.getScheduler().schedule(myFreezeSemaphore::up, ourInsertSingleItemTimeSpan, TimeUnit.MILLISECONDS);
     }
     myQueue.queue(myUpdate);
@@ -593,6 +597,7 @@ public class CompletionProgressIndicator extends ProgressIndicatorBase implement
         }
       }
       else {
+        registerCalculationTime();
         updateLookup(myIsUpdateSuppressed);
         if (CompletionServiceImpl.getCompletionPhase() != CompletionPhase.NoCompletion) {
           CompletionServiceImpl.setCompletionPhase(new CompletionPhase.ItemsCalculated(this));
@@ -601,6 +606,17 @@ public class CompletionProgressIndicator extends ProgressIndicatorBase implement
     }, myQueue.getModalityState());
   }
 
+  private void registerCalculationTime() {
+    if (isCanceled()) return;
+    long now = System.nanoTime();
+    long firstItemMs = TimeUnit.NANOSECONDS.toMillis(myFirstItemNanos - myStartNanos);
+    long totalMs = TimeUnit.NANOSECONDS.toMillis(now - myStartNanos);
+    ((FeatureUsageTrackerImpl)FeatureUsageTracker.getInstance()).getCompletionStatistics().registerCalculation(firstItemMs, totalMs);
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Completion calculated " + myCount + " items, first item in " + firstItemMs + "ms, total " + totalMs + "ms");
+    }
+  }
+
   private boolean hideAutopopupIfMeaningless() {
     if (!myLookup.isLookupDisposed() && isAutopopupCompletion() && !myLookup.isSelectionTouched() && !myLookup.isCalculating()) {
       myLookup.refreshUi(true, false);
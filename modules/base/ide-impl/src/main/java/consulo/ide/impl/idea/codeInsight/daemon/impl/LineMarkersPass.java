@@ -49,6 +49,8 @@ public class LineMarkersPass extends TextEditorHighlightingPass {
   private final TextRange myPriorityBounds;
   @Nonnull
   private final TextRange myRestrictRange;
+  // total time spent in collectSlowLineMarkers per provider class, collected for debug logging only
+  private final Map<String, Long> mySlowProviderNanos = new LinkedHashMap<>();
 
   LineMarkersPass(@Nonnull Project project,
                   @Nonnull PsiFile file,
@@ -90,15 +92,25 @@ public class LineMarkersPass extends TextEditorHighlightingPass {
         Collection<LineMarkerProvider> providers = getMarkerProviders(root, language, myProject);
         List<LineMarkerProvider> providersList = new ArrayList<>(providers);
 
-        queryProviders(elements.inside, root, providersList, (element, info) -> {
+        BiConsumer<PsiElement, LineMarkerInfo<PsiElement>> incrementalConsumer = (element, info) -> {
           lineMarkers.add(info);
           ApplicationManager.getApplication().invokeLater(() -> {
             if (isValid()) {
               LineMarkersUtil.addLineMarkerToEditorIncrementally(myProject, getDocument(), info);
             }
           }, myProject.getDisposed());
-        });
-        queryProviders(elements.outside, root, providersList, (element, info) -> lineMarkers.add(info));
+        };
+        BiConsumer<PsiElement, LineMarkerInfo<PsiElement>> consumer = (element, info) -> lineMarkers.add(info);
+
+        List<Runnable> injectedSlowQueries = new ArrayList<>();
+        queryProviders(elements.inside, root, providersList, incrementalConsumer, injectedSlowQueries);
+        queryProviders(elements.outside, root, providersList, consumer, injectedSlowQueries);
+        // slow markers (e.g. overriding/implementing searches) go after all fast ones, so the latter don't wait for index queries
+        querySlowProviders(elements.inside, providersList, incrementalConsumer);
+        querySlowProviders(elements.outside, providersList, consumer);
+        for (Runnable query : injectedSlowQueries) {
+          query.run();
+        }
         return true;
       });
     }
@@ -106,6 +118,7 @@ public class LineMarkersPass extends TextEditorHighlightingPass {
     myMarkers = mergeLineMarkers(lineMarkers, getDocument());
     if (LOG.isDebugEnabled()) {
       LOG.debug("LineMarkersPass.doCollectInformation. lineMarkers: " + lineMarkers + "; merged: " + myMarkers);
+      LOG.debug("LineMarkersPass.doCollectInformation. slow providers time (ms): " + toMillis(mySlowProviderNanos));
     }
   }
 
@@ -173,7 +186,8 @@ public class LineMarkersPass extends TextEditorHighlightingPass {
   private void queryProviders(@Nonnull List<PsiElement> elements,
                               @Nonnull PsiFile containingFile,
                               @Nonnull List<? extends LineMarkerProvider> providers,
-                              @Nonnull BiConsumer<? super PsiElement, ? super LineMarkerInfo<PsiElement>> consumer) {
+                              @Nonnull BiConsumer<? super PsiElement, ? super LineMarkerInfo<PsiElement>> consumer,
+                              @Nonnull List<Runnable> injectedSlowQueries) {
     myProject.getApplication().assertReadAccessAllowed();
     Set<PsiFile> visitedInjectedFiles = new HashSet<>();
     //noinspection ForLoopReplaceableByForEach
@@ -200,14 +214,24 @@ public class LineMarkersPass extends TextEditorHighlightingPass {
         }
       }
 
-      queryLineMarkersForInjected(element, containingFile, visitedInjectedFiles, consumer);
+      queryLineMarkersForInjected(element, containingFile, visitedInjectedFiles, consumer, injectedSlowQueries);
     }
+  }
+
+  @RequiredReadAction
+  @SuppressWarnings("unchecked")
+  private void querySlowProviders(@Nonnull List<PsiElement> elements,
+                                  @Nonnull List<? extends LineMarkerProvider> providers,
+                                  @Nonnull BiConsumer<? super PsiElement, ? super LineMarkerInfo<PsiElement>> consumer) {
+    if (elements.isEmpty()) return;
 
+    boolean measure = LOG.isDebugEnabled();
     List<LineMarkerInfo<PsiElement>> slowLineMarkers = new NotNullList<>();
     //noinspection ForLoopReplaceableByForEach
     for (int j = 0; j < providers.size(); j++) {
       ProgressManager.checkCanceled();
       LineMarkerProvider provider = providers.get(j);
+      long started = measure ? System.nanoTime() : 0;
       try {
         provider.collectSlowLineMarkers(elements, (List)slowLineMarkers);
       }
@@ -218,6 +242,11 @@ public class LineMarkersPass extends TextEditorHighlightingPass {
         LOG.error(e);
         continue;
       }
+      finally {
+        if (measure) {
+          mySlowProviderNanos.merge(provider.getClass().getName(), System.nanoTime() - started, Long::sum);
+        }
+      }
 
       if (!slowLineMarkers.isEmpty()) {
         //noinspection ForLoopReplaceableByForEach
@@ -235,7 +264,8 @@ public class LineMarkersPass extends TextEditorHighlightingPass {
   private void queryLineMarkersForInjected(@Nonnull PsiElement element,
                                            @Nonnull final PsiFile containingFile,
                                            @Nonnull Set<? super PsiFile> visitedInjectedFiles,
-                                           @Nonnull final BiConsumer<? super PsiElement, ? super LineMarkerInfo<PsiElement>> consumer) {
+                                           @Nonnull final BiConsumer<? super PsiElement, ? super LineMarkerInfo<PsiElement>> consumer,
+                                           @Nonnull List<Runnable> injectedSlowQueries) {
     final InjectedLanguageManager manager = InjectedLanguageManager.getInstance(containingFile.getProject());
     if (manager.isInjectedFragment(containingFile)) return;
 
@@ -247,7 +277,7 @@ public class LineMarkersPass extends TextEditorHighlightingPass {
       List<PsiElement> injElements = CollectHighlightsUtil.getElementsInRange(injectedPsi, 0, injectedPsi.getTextLength());
       final List<LineMarkerProvider> providers = getMarkerProviders(injectedPsi, injectedPsi.getLanguage(), project);
 
-      queryProviders(injElements, injectedPsi, providers, (injectedElement, injectedMarker) -> {
+      BiConsumer<PsiElement, LineMarkerInfo<PsiElement>> injectedConsumer = (injectedElement, injectedMarker) -> {
         GutterIconRenderer gutterRenderer = injectedMarker.createGutterRenderer();
         TextRange injectedRange = new TextRange(injectedMarker.startOffset, injectedMarker.endOffset);
         List<TextRange> editables = manager.intersectWithAllEditableFragments(injectedPsi, injectedRange);
@@ -265,10 +295,22 @@ public class LineMarkersPass extends TextEditorHighlightingPass {
                                  GutterIconRenderer.Alignment.RIGHT);
           consumer.accept(injectedElement, converted);
         }
-      });
+      };
+      queryProviders(injElements, injectedPsi, providers, injectedConsumer, injectedSlowQueries);
+      // deferred until the slow providers of the host are done, like the host's own slow markers
+      injectedSlowQueries.add(() -> querySlowProviders(injElements, providers, injectedConsumer));
     });
   }
 
+  @Nonnull
+  private static Map<String, Long> toMillis(@Nonnull Map<String, Long> nanos) {
+    Map<String, Long> result = new LinkedHashMap<>();
+    for (Map.Entry<String, Long> entry : nanos.entrySet()) {
+      result.put(entry.getKey(), entry.getValue() / 1_000_000);
+    }
+    return result;
+  }
+
   @Nonnull
   @RequiredReadAction
   public static Collection<LineMarkerInfo<PsiElement>> queryLineMarkers(@Nonnull PsiFile file, @Nonnull Document document) {
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2013-2026 consulo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package consulo.ide.impl.idea.codeInsight.daemon.impl;
+
+import consulo.ide.impl.idea.util.containers.ContainerUtil;
+import consulo.language.editor.impl.inspection.scheme.LocalInspectionToolWrapper;
+import consulo.language.editor.inspection.LocalInspectionTool;
+import consulo.language.editor.inspection.ProblemDescriptor;
+import consulo.language.psi.PsiDirectory;
+import consulo.language.psi.PsiElement;
+import consulo.language.psi.PsiFile;
+import consulo.util.dataholder.Key;
+import consulo.util.dataholder.UserDataHolderEx;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Problems found on the fly by {@link LocalInspectionTool#isLocalToElement()} tools, per visited element.
+ * Problems of an element are kept until the element or anything in its subtree is changed, see {@link PsiChangeHandler}.
+ */
+final class LocalInspectionResultsCache {
+  private static final Key<ConcurrentMap<String, ToolResults>> RESULTS_KEY = Key.create("LOCAL_INSPECTION_RESULTS");
+
+  private LocalInspectionResultsCache() {
+  }
+
+  /**
+   * @return problems of the tool by visited element, or null if results of the tool can't be reused
+   */
+  @Nullable
+  static Map<PsiElement, List<ProblemDescriptor>> getProblemsByElement(@Nonnull PsiFile file, @Nonnull LocalInspectionToolWrapper toolWrapper, @Nonnull Object state) {
+    if (!toolWrapper.getTool().isLocalToElement()) return null;
+
+    ConcurrentMap<String, ToolResults> results = file.getUserData(RESULTS_KEY);
+    if (results == null) {
+      results = ((UserDataHolderEx)file).putUserDataIfAbsent(RESULTS_KEY, new ConcurrentHashMap<>());
+    }
+    ToolResults toolResults = results.get(toolWrapper.getShortName());
+    if (toolResults == null || toolResults.myToolWrapper != toolWrapper || toolResults.myState != state) {
+      // first run, or the profile or the settings of the tool were changed since
+      toolResults = new ToolResults(toolWrapper, state);
+      results.put(toolWrapper.getShortName(), toolResults);
+    }
+    return toolResults.myProblemsByElement;
+  }
+
+  /**
+   * Drops problems of the changed element and all its parents, whose subtrees contain the change.
+   */
+  static void dropProblems(@Nonnull PsiElement changed) {
+    PsiFile containingFile = changed.getContainingFile();
+    if (containingFile == null) return;
+
+    // results are kept by the inspected file, which may be another root of the same view provider
+    for (PsiFile root : containingFile.getViewProvider().getAllFiles()) {
+      ConcurrentMap<String, ToolResults> results = root.getUserData(RESULTS_KEY);
+      if (results == null) continue;
+
+      for (PsiElement element = changed; element != null && !(element instanceof PsiDirectory); element = element.getParent()) {
+        for (ToolResults toolResults : results.values()) {
+          toolResults.myProblemsByElement.remove(element);
+        }
+        if (element instanceof PsiFile) break;
+      }
+    }
+  }
+
+  private static final class ToolResults {
+    private final LocalInspectionToolWrapper myToolWrapper;
+    private final Object myState;
+    private final ConcurrentMap<PsiElement, List<ProblemDescriptor>> myProblemsByElement = ContainerUtil.createConcurrentWeakMap();
+
+    private ToolResults(@Nonnull LocalInspectionToolWrapper toolWrapper, @Nonnull Object state) {
+      myToolWrapper = toolWrapper;
+      myState = state;
+    }
+  }
+}
@@ -30,6 +30,7 @@ import consulo.document.Document;
 import consulo.document.RangeMarker;
 import consulo.document.util.TextRange;
 import consulo.ide.impl.idea.codeInspection.InspectionEngine;
+import consulo.ide.impl.idea.codeInspection.InspectionProfilingStatistics;
 import consulo.ide.impl.idea.codeInspection.ex.GlobalInspectionContextImpl;
 import consulo.ide.impl.idea.codeInspection.ex.LocalDescriptorsUtil;
 import consulo.ide.impl.idea.codeInspection.ex.ProblemDescriptorImpl;
@@ -232,8 +233,14 @@ public class LocalInspectionsPass extends ProgressableTextEditorHighlightingPass
     final LocalInspectionToolSession session = new LocalInspectionToolSession(getFile(), myRestrictRange.getStartOffset(), myRestrictRange.getEndOffset());
 
     List<InspectionContext> init = visitPriorityElementsAndInit(toolToSpecifiedLanguageIds, iManager, isOnTheFly, progress, inside, session, toolWrappers, elementDialectIds);
-    inspectInjectedPsi(inside, isOnTheFly, progress, iManager, true, toolWrappers);
-    visitRestElementsAndCleanup(progress, outside, session, init, elementDialectIds);
+    try {
+      inspectInjectedPsi(inside, isOnTheFly, progress, iManager, true, toolWrappers);
+      visitRestElementsAndCleanup(progress, outside, session, init, elementDialectIds);
+    }
+    finally {
+      // tools cancelled before their second phase are still recorded
+      finishProfiling(init);
+    }
     inspectInjectedPsi(outside, isOnTheFly, progress, iManager, false, toolWrappers);
 
     progress.checkCanceled();
@@ -261,8 +268,18 @@ public class LocalInspectionsPass extends ProgressableTextEditorHighlightingPass
               .executeByImpatientReader(() -> runToolOnElements(toolWrapper, dialectIdsSpecifiedForTool, iManager, isOnTheFly, indicator, elements, session, init, elementDialectIds));
       return true;
     };
-    boolean result = JobLauncher.getInstance().invokeConcurrentlyUnderProgress(entries, indicator, myFailFastOnAcquireReadAction, processor);
-    if (!result) throw new ProcessCanceledException();
+    boolean result;
+    try {
+      result = JobLauncher.getInstance().invokeConcurrentlyUnderProgress(entries, indicator, myFailFastOnAcquireReadAction, processor);
+    }
+    catch (RuntimeException | Error e) {
+      finishProfiling(init);
+      throw e;
+    }
+    if (!result) {
+      finishProfiling(init);
+      throw new ProcessCanceledException();
+    }
     return init;
   }
 
@@ -291,11 +308,27 @@ public class LocalInspectionsPass extends ProgressableTextEditorHighlightingPass
     };
 
     Object state = toolWrapper.getToolState().getState();
+    Map<PsiElement, List<ProblemDescriptor>> problemsByElement = isOnTheFly ? LocalInspectionResultsCache.getProblemsByElement(getFile(), toolWrapper, state) : null;
 
-    PsiElementVisitor visitor = InspectionEngine.createVisitorAndAcceptElements(tool, holder, isOnTheFly, session, elements, elementDialectIds, dialectIdsSpecifiedForTool, state);
+    // the sample is continued in visitRestElementsAndCleanup, so the daemon reports one invocation per tool and file
+    InspectionProfilingStatistics.Sample sample = InspectionProfilingStatistics.start();
+    PsiElementVisitor visitor;
+    boolean visited = false;
+    try {
+      visitor = InspectionEngine.createVisitorAndAcceptElements(tool, holder, isOnTheFly, session, elements, elementDialectIds, dialectIdsSpecifiedForTool, state, problemsByElement);
+      visited = true;
+    }
+    finally {
+      if (visited) {
+        InspectionProfilingStatistics.suspend(sample);
+      }
+      else {
+        InspectionProfilingStatistics.finish(sample, toolWrapper, getFile());
+      }
+    }
 
     synchronized (init) {
-      init.add(new InspectionContext(toolWrapper, holder, holder.getResultCount(), visitor, dialectIdsSpecifiedForTool));
+      init.add(new InspectionContext(toolWrapper, holder, holder.getResultCount(), visitor, dialectIdsSpecifiedForTool, sample, problemsByElement));
     }
     advanceProgress(1);
 
@@ -313,11 +346,22 @@ public class LocalInspectionsPass extends ProgressableTextEditorHighlightingPass
     Predicate<InspectionContext> processor = context -> {
       indicator.checkCanceled();
       ApplicationManager.getApplication().assertReadAccessAllowed();
-      InspectionEngine.acceptElements(elements, context.visitor, elementDialectIds, context.dialectIdsSpecifiedForTool);
-      advanceProgress(1);
+      InspectionProfilingStatistics.resume(context.profilingSample);
+      try {
+        if (context.problemsByElement == null) {
+          InspectionEngine.acceptElements(elements, context.visitor, elementDialectIds, context.dialectIdsSpecifiedForTool);
+        }
+        else {
+          InspectionEngine.acceptElements(elements, context.visitor, context.holder, context.problemsByElement, elementDialectIds, context.dialectIdsSpecifiedForTool);
+        }
+        advanceProgress(1);
 
-      Object state = context.tool.getToolState().getState();
-      context.tool.getTool().inspectionFinished(session, context.holder, state);
+        Object state = context.tool.getToolState().getState();
+        context.tool.getTool().inspectionFinished(session, context.holder, state);
+      }
+      finally {
+        InspectionProfilingStatistics.finish(context.profilingSample, context.tool, getFile());
+      }
 
       if (context.holder.hasResults()) {
         List<ProblemDescriptor> allProblems = context.holder.getResults();
@@ -332,6 +376,15 @@ public class LocalInspectionsPass extends ProgressableTextEditorHighlightingPass
     }
   }
 
+  private void finishProfiling(@Nonnull List<InspectionContext> contexts) {
+    if (!InspectionProfilingStatistics.isEnabled()) return;
+    synchronized (contexts) {
+      for (InspectionContext context : contexts) {
+        InspectionProfilingStatistics.finish(context.profilingSample, context.tool, getFile());
+      }
+    }
+  }
+
   void inspectInjectedPsi(@Nonnull final List<PsiElement> elements,
                           final boolean onTheFly,
                           @Nonnull final ProgressIndicator indicator,
@@ -707,9 +760,15 @@ public class LocalInspectionsPass extends ProgressableTextEditorHighlightingPass
 
       LocalInspectionToolSession injSession = new LocalInspectionToolSession(injectedPsi, 0, injectedPsi.getTextLength());
       Set<String> dialectIdsSpecifiedForTool = pair.getValue();
-      InspectionEngine.createVisitorAndAcceptElements(tool, holder, isOnTheFly, injSession, elements, elementDialectIds, dialectIdsSpecifiedForTool,
-                                                      state);
-      tool.inspectionFinished(injSession, holder, state);
+      InspectionProfilingStatistics.Sample sample = InspectionProfilingStatistics.start();
+      try {
+        InspectionEngine.createVisitorAndAcceptElements(tool, holder, isOnTheFly, injSession, elements, elementDialectIds, dialectIdsSpecifiedForTool,
+                                                        state);
+        tool.inspectionFinished(injSession, holder, state);
+      }
+      finally {
+        InspectionProfilingStatistics.finish(sample, wrapper, injectedPsi);
+      }
       List<ProblemDescriptor> problems = holder.getResults();
       if (!problems.isEmpty()) {
         appendDescriptors(injectedPsi, problems, wrapper);
@@ -738,12 +797,16 @@ public class LocalInspectionsPass extends ProgressableTextEditorHighlightingPass
   private static class InspectionContext {
     private InspectionContext(@Nonnull LocalInspectionToolWrapper tool, @Nonnull ProblemsHolder holder, int problemsSize,
                               // need this to diff between found problems in visible part and the rest
-                              @Nonnull PsiElementVisitor visitor, @Nullable Set<String> dialectIdsSpecifiedForTool) {
+                              @Nonnull PsiElementVisitor visitor, @Nullable Set<String> dialectIdsSpecifiedForTool,
+                              @Nullable InspectionProfilingStatistics.Sample profilingSample,
+                              @Nullable Map<PsiElement, List<ProblemDescriptor>> problemsByElement) {
       this.tool = tool;
       this.holder = holder;
       this.problemsSize = problemsSize;
       this.visitor = visitor;
       this.dialectIdsSpecifiedForTool = dialectIdsSpecifiedForTool;
+      this.profilingSample = profilingSample;
+      this.problemsByElement = problemsByElement;
     }
 
     @Nonnull
@@ -755,5 +818,9 @@ public class LocalInspectionsPass extends ProgressableTextEditorHighlightingPass
     private final PsiElementVisitor visitor;
     @Nullable
     private final Set<String> dialectIdsSpecifiedForTool;
+    @Nullable
+    private final InspectionProfilingStatistics.Sample profilingSample;
+    @Nullable
+    private final Map<PsiElement, List<ProblemDescriptor>> problemsByElement;
   }
 }
@@ -196,6 +196,9 @@ final class PassExecutorService implements Disposable {
     for (ScheduledPass dependentPass : dependentPasses) {
       mySubmittedPasses.put(dependentPass, Job.nullJob());
     }
+    // passes of the editors the user is looking at go first, so they get the pool threads before the background editors' passes
+    Set<FileEditor> selectedEditors = new HashSet<>(Arrays.asList(FileEditorManager.getInstance(myProject).getSelectedEditors()));
+    freePasses.sort(Comparator.comparing(pass -> !selectedEditors.contains(pass.myFileEditor)));
     for (ScheduledPass freePass : freePasses) {
       submit(freePass);
     }
@@ -411,6 +414,7 @@ final class PassExecutorService implements Disposable {
       if (myUpdateProgress.isCanceled()) return;
 
       log(myUpdateProgress, myPass, "Started. ");
+      long started = System.nanoTime();
 
       for (ScheduledPass successor : mySuccessorsOnSubmit) {
         int predecessorsToRun = successor.myRunningPredecessorsCount.decrementAndGet();
@@ -449,7 +453,7 @@ final class PassExecutorService implements Disposable {
         }
       }, myUpdateProgress);
 
-      log(myUpdateProgress, myPass, "Finished. ");
+      log(myUpdateProgress, myPass, "Finished in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + "ms. ");
 
       if (!myUpdateProgress.isCanceled()) {
         applyInformationToEditorsLater(myFileEditor, myPass, myUpdateProgress, myThreadsToStartCountdown, () -> {
@@ -182,6 +182,9 @@ final class PsiChangeHandler extends PsiTreeChangeAdapter implements Disposable
 
   private void queueElement(@Nonnull PsiElement child, final boolean whitespaceOptimizationAllowed, @Nonnull PsiTreeChangeEvent event) {
     ApplicationManager.getApplication().assertIsWriteThread();
+    if (child.isValid()) {
+      LocalInspectionResultsCache.dropProblems(child);
+    }
     PsiFile file = event.getFile();
     if (file == null) file = child.getContainingFile();
     if (file == null) {
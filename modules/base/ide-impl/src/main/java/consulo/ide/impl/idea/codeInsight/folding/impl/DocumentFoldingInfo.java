@@ -6,6 +6,7 @@ import consulo.language.ast.ASTNode;
 import consulo.language.editor.folding.FoldingBuilder;
 import consulo.language.editor.folding.FoldingDescriptor;
 import consulo.language.editor.folding.LanguageFolding;
+import consulo.language.editor.internal.EditorFoldingInfoImpl;
 import consulo.application.ApplicationManager;
 import consulo.document.Document;
 import consulo.codeEditor.Editor;
@@ -98,8 +99,20 @@ class DocumentFoldingInfo implements CodeFoldingState {
     final PsiFile psiFile = psiManager.findFile(myFile);
     if (psiFile == null) return;
 
+    EditorFoldingInfoImpl foldingInfo = EditorFoldingInfoImpl.get(editor);
+    Map<String, FoldRegion> regionsBySignature = null;
     Map<PsiElement, FoldingDescriptor> ranges = null;
     for (Info info : myInfos) {
+      // regions created by the folding pass remember their signatures, so usually there's no need to resolve PSI and rebuild descriptors
+      if (regionsBySignature == null) {
+        regionsBySignature = collectRegionsBySignature(editor);
+      }
+      FoldRegion existing = regionsBySignature.get(info.signature);
+      if (existing != null && hasActualSignature(existing, info.signature, foldingInfo)) {
+        existing.setExpanded(info.expanded);
+        continue;
+      }
+
       PsiElement element = FoldingPolicy.restoreBySignature(psiFile, info.signature);
       if (element == null || !element.isValid()) {
         continue;
@@ -139,6 +152,29 @@ class DocumentFoldingInfo implements CodeFoldingState {
     }
   }
 
+  @Nonnull
+  private static Map<String, FoldRegion> collectRegionsBySignature(@Nonnull Editor editor) {
+    Map<String, FoldRegion> result = new HashMap<>();
+    Set<String> ambiguous = new HashSet<>();
+    for (FoldRegion region : editor.getFoldingModel().getAllFoldRegions()) {
+      String signature = region.getUserData(UpdateFoldRegionsOperation.SIGNATURE);
+      if (!region.isValid() || signature == null || signature == UpdateFoldRegionsOperation.NO_SIGNATURE) continue;
+      if (result.put(signature, region) != null) {
+        ambiguous.add(signature);
+      }
+    }
+    result.keySet().removeAll(ambiguous);
+    return result;
+  }
+
+  // the signature is stored when a region is created, and a region kept through later edits may cover another element by now
+  private static boolean hasActualSignature(@Nonnull FoldRegion region, @Nonnull String signature, @Nonnull EditorFoldingInfoImpl foldingInfo) {
+    PsiElement element = foldingInfo.getPsiElement(region);
+    if (element == null || !signature.equals(FoldingPolicy.getSignature(element))) return false;
+    TextRange elementRange = foldingInfo.getPsiElementRange(region);
+    return elementRange != null && elementRange.contains(region);
+  }
+
   @Nonnull
   private static Map<PsiElement, FoldingDescriptor> buildRanges(@Nonnull Editor editor, @Nonnull PsiFile psiFile) {
     final FoldingBuilder foldingBuilder = FoldingBuilder.forLanguageComposite(psiFile.getLanguage());
@@ -73,6 +73,23 @@ public class InspectionEngine {
                                                                  @Nonnull Set<String> elementDialectIds,
                                                                  @Nullable Set<String> dialectIdsSpecifiedForTool,
                                                                  @Nonnull Object stateObject) {
+    return createVisitorAndAcceptElements(tool, holder, isOnTheFly, session, elements, elementDialectIds, dialectIdsSpecifiedForTool, stateObject, null);
+  }
+
+  /**
+   * @param problemsByElement problems found by previous runs of the tool, reused for elements present there and filled for the others;
+   *                          null means every element is visited
+   */
+  @Nonnull
+  public static PsiElementVisitor createVisitorAndAcceptElements(@Nonnull LocalInspectionTool tool,
+                                                                 @Nonnull ProblemsHolder holder,
+                                                                 boolean isOnTheFly,
+                                                                 @Nonnull LocalInspectionToolSession session,
+                                                                 @Nonnull List<PsiElement> elements,
+                                                                 @Nonnull Set<String> elementDialectIds,
+                                                                 @Nullable Set<String> dialectIdsSpecifiedForTool,
+                                                                 @Nonnull Object stateObject,
+                                                                 @Nullable Map<PsiElement, List<ProblemDescriptor>> problemsByElement) {
     if (!tool.isAvailableForFile(holder.getFile())) {
       return PsiElementVisitor.EMPTY_VISITOR;
     }
@@ -87,7 +104,12 @@ public class InspectionEngine {
     }
 
     tool.inspectionStarted(session, isOnTheFly, stateObject);
-    acceptElements(elements, visitor, elementDialectIds, dialectIdsSpecifiedForTool);
+    if (problemsByElement == null) {
+      acceptElements(elements, visitor, elementDialectIds, dialectIdsSpecifiedForTool);
+    }
+    else {
+      acceptElements(elements, visitor, holder, problemsByElement, elementDialectIds, dialectIdsSpecifiedForTool);
+    }
     return visitor;
   }
 
@@ -110,6 +132,36 @@ public class InspectionEngine {
     }
   }
 
+  /**
+   * Same as {@link #acceptElements(List, PsiElementVisitor, Set, Set)}, but problems of elements present in {@code problemsByElement}
+   * are registered in the {@code holder} again instead of visiting these elements, and problems of the visited elements are stored there.
+   */
+  public static void acceptElements(@Nonnull List<PsiElement> elements,
+                                    @Nonnull PsiElementVisitor elementVisitor,
+                                    @Nonnull ProblemsHolder holder,
+                                    @Nonnull Map<PsiElement, List<ProblemDescriptor>> problemsByElement,
+                                    @Nonnull Set<String> elementDialectIds,
+                                    @Nullable Set<String> dialectIdsSpecifiedForTool) {
+    if (dialectIdsSpecifiedForTool != null && !intersect(elementDialectIds, dialectIdsSpecifiedForTool)) return;
+    //noinspection ForLoopReplaceableByForEach
+    for (int i = 0, elementsSize = elements.size(); i < elementsSize; i++) {
+      PsiElement element = elements.get(i);
+      List<ProblemDescriptor> problems = problemsByElement.get(element);
+      if (problems != null) {
+        for (ProblemDescriptor problem : problems) {
+          holder.registerProblem(problem);
+        }
+      }
+      else {
+        int resultCount = holder.getResultCount();
+        element.accept(elementVisitor);
+        List<ProblemDescriptor> results = holder.getResults();
+        problemsByElement.put(element, resultCount == results.size() ? Collections.emptyList() : new ArrayList<>(results.subList(resultCount, results.size())));
+      }
+      ProgressManager.checkCanceled();
+    }
+  }
+
   private static boolean intersect(@Nonnull Set<String> ids1, @Nonnull Set<String> ids2) {
     if (ids1.size() > ids2.size()) return intersect(ids2, ids1);
     for (String id : ids1) {
@@ -178,8 +230,14 @@ public class InspectionEngine {
       final LocalInspectionTool tool = entry.getKey().getTool();
       Object toolState = entry.getKey().getToolState().getState();
       Set<String> dialectIdsSpecifiedForTool = entry.getValue();
-      createVisitorAndAcceptElements(tool, holder, isOnTheFly, session, elements, elementDialectIds, dialectIdsSpecifiedForTool, toolState);
-      tool.inspectionFinished(session, holder, toolState);
+      InspectionProfilingStatistics.Sample sample = InspectionProfilingStatistics.start();
+      try {
+        createVisitorAndAcceptElements(tool, holder, isOnTheFly, session, elements, elementDialectIds, dialectIdsSpecifiedForTool, toolState);
+        tool.inspectionFinished(session, holder, toolState);
+      }
+      finally {
+        InspectionProfilingStatistics.finish(sample, entry.getKey(), file);
+      }
 
       if (holder.hasResults()) {
         resultDescriptors.put(tool.getShortName(), ContainerUtil.filter(holder.getResults(), descriptor -> {
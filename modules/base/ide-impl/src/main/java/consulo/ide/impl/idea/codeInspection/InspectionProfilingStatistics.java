@@ -0,0 +1,213 @@
+/*
+ * Copyright 2013-2026 consulo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package consulo.ide.impl.idea.codeInspection;
+
+import consulo.language.editor.inspection.scheme.InspectionToolWrapper;
+import consulo.language.psi.PsiFile;
+import consulo.util.lang.SystemProperties;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects wall time, thread CPU time, allocated bytes and invocation count per inspection tool and file type.
+ * Disabled unless {@code -Dinspection.profiling=true} is passed; in that case both the daemon and batch inspections report here.
+ * <p>
+ * One run of a tool on a file is one invocation, even if it is split into several phases
+ * (see {@link #suspend(Sample)} and {@link #resume(Sample)}).
+ */
+public final class InspectionProfilingStatistics {
+  private static final boolean ENABLED = SystemProperties.getBooleanProperty("inspection.profiling", false);
+
+  private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+  @Nullable
+  private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = initAllocationBean();
+
+  private static final ConcurrentMap<Key, Counters> ourCounters = new ConcurrentHashMap<>();
+
+  private InspectionProfilingStatistics() {
+  }
+
+  public static boolean isEnabled() {
+    return ENABLED;
+  }
+
+  /**
+   * @return running measurement, or null when profiling is disabled
+   */
+  @Nullable
+  public static Sample start() {
+    if (!ENABLED) return null;
+    Sample sample = new Sample();
+    sample.resume();
+    return sample;
+  }
+
+  /**
+   * Stops measuring until {@link #resume(Sample)}. Must be called on the thread the measurement was started or resumed on.
+   */
+  public static void suspend(@Nullable Sample sample) {
+    if (sample != null) {
+      sample.suspend();
+    }
+  }
+
+  /**
+   * Continues a suspended measurement on the current thread.
+   */
+  public static void resume(@Nullable Sample sample) {
+    if (sample != null) {
+      sample.resume();
+    }
+  }
+
+  /**
+   * Records the sample as one invocation. A running sample must be finished on the thread it was started or resumed on.
+   * Subsequent calls for the same sample are ignored, so it's safe to call this from cleanup code.
+   */
+  public static void finish(@Nullable Sample sample, @Nonnull InspectionToolWrapper toolWrapper, @Nonnull PsiFile file) {
+    if (sample == null || !sample.myFinished.compareAndSet(false, true)) return;
+    sample.suspend();
+
+    Key key = new Key(toolWrapper.getShortName(), file.getFileType().getName());
+    Counters counters = ourCounters.computeIfAbsent(key, k -> new Counters());
+    counters.myInvocations.increment();
+    counters.myWallNanos.add(sample.myWallNanos);
+    counters.myCpuNanos.add(sample.myCpuNanos);
+    counters.myAllocatedBytes.add(sample.myAllocatedBytes);
+  }
+
+  public static void clear() {
+    ourCounters.clear();
+  }
+
+  /**
+   * @return tab separated report sorted by descending wall time
+   */
+  @Nonnull
+  public static String dump() {
+    List<Map.Entry<Key, Counters>> entries = new ArrayList<>(ourCounters.entrySet());
+    entries.sort((o1, o2) -> Long.compare(o2.getValue().myWallNanos.sum(), o1.getValue().myWallNanos.sum()));
+
+    StringBuilder builder = new StringBuilder();
+    builder.append("inspection\tfileType\tinvocations\twallMs\tcpuMs\tallocatedKb\n");
+    for (Map.Entry<Key, Counters> entry : entries) {
+      Key key = entry.getKey();
+      Counters counters = entry.getValue();
+      builder.append(key.myToolShortName).append('\t')
+             .append(key.myFileType).append('\t')
+             .append(counters.myInvocations.sum()).append('\t')
+             .append(counters.myWallNanos.sum() / 1_000_000).append('\t')
+             .append(counters.myCpuNanos.sum() / 1_000_000).append('\t')
+             .append(counters.myAllocatedBytes.sum() / 1024).append('\n');
+    }
+    return builder.toString();
+  }
+
+  private static long currentThreadCpuTime() {
+    return THREAD_BEAN.isCurrentThreadCpuTimeSupported() ? THREAD_BEAN.getCurrentThreadCpuTime() : -1;
+  }
+
+  private static long currentThreadAllocatedBytes() {
+    return ALLOCATION_BEAN == null ? -1 : ALLOCATION_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  @Nullable
+  private static com.sun.management.ThreadMXBean initAllocationBean() {
+    if (!ENABLED || !(THREAD_BEAN instanceof com.sun.management.ThreadMXBean)) return null;
+    com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean)THREAD_BEAN;
+    if (!bean.isThreadAllocatedMemorySupported()) return null;
+    if (!bean.isThreadAllocatedMemoryEnabled()) {
+      bean.setThreadAllocatedMemoryEnabled(true);
+    }
+    return bean;
+  }
+
+  public static final class Sample {
+    private final AtomicBoolean myFinished = new AtomicBoolean();
+    private boolean myRunning;
+    // values at the last resume() on the measuring thread
+    private long myStartWallNanos;
+    private long myStartCpuNanos;
+    private long myStartAllocatedBytes;
+    // totals of the finished phases
+    private long myWallNanos;
+    private long myCpuNanos;
+    private long myAllocatedBytes;
+
+    private Sample() {
+    }
+
+    private void resume() {
+      if (myRunning) return;
+      myRunning = true;
+      myStartWallNanos = System.nanoTime();
+      myStartCpuNanos = currentThreadCpuTime();
+      myStartAllocatedBytes = currentThreadAllocatedBytes();
+    }
+
+    private void suspend() {
+      if (!myRunning) return;
+      myRunning = false;
+      myWallNanos += System.nanoTime() - myStartWallNanos;
+      if (myStartCpuNanos >= 0) {
+        myCpuNanos += Math.max(0, currentThreadCpuTime() - myStartCpuNanos);
+      }
+      if (myStartAllocatedBytes >= 0) {
+        myAllocatedBytes += Math.max(0, currentThreadAllocatedBytes() - myStartAllocatedBytes);
+      }
+    }
+  }
+
+  private static final class Counters {
+    private final LongAdder myInvocations = new LongAdder();
+    private final LongAdder myWallNanos = new LongAdder();
+    private final LongAdder myCpuNanos = new LongAdder();
+    private final LongAdder myAllocatedBytes = new LongAdder();
+  }
+
+  private static final class Key {
+    private final String myToolShortName;
+    private final String myFileType;
+
+    private Key(@Nonnull String toolShortName, @Nonnull String fileType) {
+      myToolShortName = toolShortName;
+      myFileType = fileType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Key)) return false;
+      Key key = (Key)o;
+      return myToolShortName.equals(key.myToolShortName) && myFileType.equals(key.myFileType);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * myToolShortName.hashCode() + myFileType.hashCode();
+    }
+  }
+}
@@ -38,6 +38,7 @@ import consulo.document.util.TextRange;
 import consulo.ide.impl.idea.analysis.AnalysisUIOptions;
 import consulo.ide.impl.idea.analysis.PerformAnalysisInBackgroundOption;
 import consulo.ide.impl.idea.codeInsight.daemon.impl.LocalInspectionsPass;
+import consulo.ide.impl.idea.codeInspection.InspectionProfilingStatistics;
 import consulo.ide.impl.idea.codeInspection.ui.DefaultInspectionToolPresentation;
 import consulo.ide.impl.idea.codeInspection.ui.InspectionResultsView;
 import consulo.ide.impl.idea.codeInspection.ui.InspectionToolPresentation;
@@ -92,9 +93,11 @@ import consulo.ui.ex.content.event.ContentManagerEvent;
 import consulo.undoRedo.CommandProcessor;
 import consulo.util.io.CharsetToolkit;
 import consulo.util.lang.EmptyRunnable;
+import consulo.util.lang.SystemProperties;
 import consulo.util.lang.function.Condition;
 import consulo.util.lang.function.TripleFunction;
 import consulo.virtualFileSystem.VirtualFile;
+import consulo.virtualFileSystem.util.VirtualFileUtil;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.jdom.Element;
@@ -115,6 +118,10 @@ import java.util.function.Predicate;
 public class GlobalInspectionContextImpl extends GlobalInspectionContextBase implements GlobalInspectionContext {
   private static final Logger LOG = Logger.getInstance(GlobalInspectionContextImpl.class);
   static final NotificationGroup NOTIFICATION_GROUP = NotificationGroup.toolWindowGroup("Inspection Results", ToolWindowId.INSPECTION);
+  // offline inspections of a big project may be split between several processes, each one inspecting files of its own shard only
+  private static final int SHARD_COUNT = SystemProperties.getIntProperty("inspection.shard.count", 1);
+  private static final int SHARD_INDEX = SystemProperties.getIntProperty("inspection.shard.index", 0);
+  private static final String PROFILING_STATISTICS_FILE = "inspection-profiling.tsv";
   private final NotNullLazyValue<ContentManager> myContentManager;
   private InspectionResultsView myView;
   private Content myContent;
@@ -194,6 +201,7 @@ public class GlobalInspectionContextImpl extends GlobalInspectionContextBase imp
         try {
           performInspectionsWithProgress(scope, runGlobalToolsOnly, isOfflineInspections);
           exportResults(inspectionsResults, outputPath);
+          exportProfilingStatistics(outputPath);
         }
         finally {
           DefaultInspectionToolPresentation.setOutputPath(null);
@@ -287,6 +295,22 @@ public class GlobalInspectionContextImpl extends GlobalInspectionContextBase imp
     }
   }
 
+  private static void exportProfilingStatistics(@Nullable String outputPath) {
+    if (!InspectionProfilingStatistics.isEnabled()) return;
+    String report = InspectionProfilingStatistics.dump();
+    if (outputPath == null) {
+      LOG.info("Inspection profiling statistics:\n" + report);
+      return;
+    }
+    try {
+      new File(outputPath).mkdirs();
+      FileUtil.writeToFile(new File(outputPath, PROFILING_STATISTICS_FILE), report.getBytes(CharsetToolkit.UTF8_CHARSET));
+    }
+    catch (IOException e) {
+      LOG.error(e);
+    }
+  }
+
   public void ignoreElement(@Nonnull InspectionTool tool, @Nonnull PsiElement element) {
     final RefElement refElement = getRefManager().getReference(element);
     final Tools tools = myTools.get(tool.getShortName());
@@ -379,6 +403,10 @@ public class GlobalInspectionContextImpl extends GlobalInspectionContextBase imp
     if (!isOfflineInspections && ApplicationManager.getApplication().isReadAccessAllowed()) {
       throw new IncorrectOperationException("Must not start inspections from within global read action");
     }
+    if (ApplicationManager.getApplication().isHeadlessEnvironment()) {
+      // an out of range shard would silently inspect nothing
+      checkShardSettings();
+    }
     final InspectionManager inspectionManager = InspectionManager.getInstance(getProject());
     final List<Tools> globalTools = new ArrayList<Tools>();
     final List<Tools> localTools = new ArrayList<Tools>();
@@ -579,11 +607,29 @@ public class GlobalInspectionContextImpl extends GlobalInspectionContextBase imp
     }
 
     if (SingleRootFileViewProvider.isTooLargeForIntelligence(virtualFile)) return null;
+    if (headlessEnvironment && !isInCurrentShard(virtualFile)) return null;
     if (localScopeFiles != null && !localScopeFiles.add(virtualFile)) return null;
 
     return PsiDocumentManager.getInstance(getProject()).getDocument(file);
   }
 
+  // String.hashCode() is specified and the path is taken relative to the project base dir,
+  // so shard processes in different checkout directories or on different agents split the same file set identically
+  private boolean isInCurrentShard(@Nonnull VirtualFile file) {
+    if (SHARD_COUNT <= 1) return true;
+    VirtualFile baseDir = getProject().getBaseDir();
+    String path = baseDir == null ? null : VirtualFileUtil.getRelativePath(file, baseDir, '/');
+    if (path == null) path = file.getPath();
+    return Math.floorMod(path.hashCode(), SHARD_COUNT) == SHARD_INDEX;
+  }
+
+  private static void checkShardSettings() {
+    if (SHARD_COUNT < 1 || SHARD_INDEX < 0 || SHARD_INDEX >= SHARD_COUNT) {
+      throw new IncorrectOperationException("Invalid inspection sharding: inspection.shard.index=" + SHARD_INDEX +
+                                            " must be in [0, inspection.shard.count=" + SHARD_COUNT + ")");
+    }
+  }
+
   private void runGlobalTools(@Nonnull final AnalysisScope scope, @Nonnull final InspectionManager inspectionManager, @Nonnull List<Tools> globalTools, boolean isOfflineInspections) {
     LOG.assertTrue(!ApplicationManager.getApplication().isReadAccessAllowed() || isOfflineInspections, "Must not run under read action, too unresponsive");
     final List<InspectionToolWrapper> needRepeatSearchRequest = new ArrayList<InspectionToolWrapper>();
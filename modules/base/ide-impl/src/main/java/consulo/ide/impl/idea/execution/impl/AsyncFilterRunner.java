@@ -34,6 +34,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 class AsyncFilterRunner {
   private static final Logger LOG = Logger.getInstance(AsyncFilterRunner.class);
   private static final ExecutorService ourExecutor = SequentialTaskExecutor.createSequentialApplicationPoolExecutor("Console Filters");
+  // number of lines analyzed before their results are published to EDT at once
+  private static final int LINE_BATCH_SIZE = 64;
   private final EditorHyperlinkSupport myHyperlinks;
   private final Editor myEditor;
   private final Queue<HighlighterJob> myQueue = new ConcurrentLinkedQueue<>();
@@ -141,10 +143,7 @@ class AsyncFilterRunner {
     while (!myQueue.isEmpty()) {
       HighlighterJob highlighter = myQueue.peek();
       if (!DumbService.isDumbAware(highlighter.filter) && DumbService.isDumb(highlighter.myProject)) return;
-      while (highlighter.hasUnprocessedLines()) {
-        ProgressManager.checkCanceled();
-        addLineResult(highlighter.analyzeNextLine());
-      }
+      highlighter.analyzeRemainingLines();
       LOG.assertTrue(highlighter == myQueue.remove());
     }
   }
@@ -169,16 +168,19 @@ class AsyncFilterRunner {
    */
   private class FilterResult {
     private final DeltaTracker myDelta;
-    private final Filter.Result myResult;
+    private final List<Filter.Result> myResults;
 
-    FilterResult(DeltaTracker delta, Filter.Result result) {
+    FilterResult(DeltaTracker delta, List<Filter.Result> results) {
       myDelta = delta;
-      myResult = result;
+      myResults = results;
     }
 
     void applyHighlights() {
-      if (!myDelta.isOutdated()) {
-        myHyperlinks.highlightHyperlinks(myResult, myDelta.getOffsetDelta());
+      if (myDelta.isOutdated()) return;
+
+      int offsetDelta = myDelta.getOffsetDelta();
+      for (Filter.Result result : myResults) {
+        myHyperlinks.highlightHyperlinks(result, offsetDelta);
       }
     }
   }
@@ -209,12 +211,52 @@ class AsyncFilterRunner {
       return !delta.isOutdated() && startLine.get() <= endLine;
     }
 
-    @Nullable
-    private AsyncFilterRunner.FilterResult analyzeNextLine() {
-      int line = startLine.get();
-      Filter.Result result = analyzeLine(line);
-      LOG.assertTrue(line == startLine.getAndIncrement());
-      return result == null ? null : new FilterResult(delta, result);
+    /**
+     * The start line is advanced after each analyzed line, so cancellation by a console flush loses no finished work
+     * and no line is fed to the (possibly stateful) filter twice. Only publishing is batched: results are handed over
+     * every {@link #LINE_BATCH_SIZE} lines, and whatever is collected so far is handed over on cancellation too.
+     */
+    private void analyzeRemainingLines() {
+      List<Filter.Result> results = new ArrayList<>();
+      try {
+        int analyzed = 0;
+        while (hasUnprocessedLines()) {
+          ProgressManager.checkCanceled();
+          if (analyzed % LINE_BATCH_SIZE == 0) {
+            if (!results.isEmpty()) {
+              addLineResult(new FilterResult(delta, results));
+              results = new ArrayList<>();
+            }
+            int first = startLine.get();
+            LOG.assertTrue(startLine.compareAndSet(first, skipTrimmedLines(first)));
+            if (!hasUnprocessedLines()) break;
+          }
+
+          int line = startLine.get();
+          Filter.Result result = analyzeLine(line);
+          LOG.assertTrue(startLine.compareAndSet(line, line + 1));
+          if (result != null) {
+            results.add(result);
+          }
+          analyzed++;
+        }
+      }
+      finally {
+        if (!results.isEmpty()) {
+          addLineResult(new FilterResult(delta, results));
+        }
+      }
+    }
+
+    // lines already removed from the document head by the cyclic buffer are not worth filtering
+    private int skipTrimmedLines(int line) {
+      int trimmedLength = -delta.getOffsetDelta();
+      if (line > endLine || snapshot.getLineStartOffset(line) >= trimmedLength) return line;
+      if (trimmedLength >= snapshot.getTextLength()) return endLine + 1;
+
+      int firstLine = snapshot.getLineNumber(trimmedLength);
+      if (snapshot.getLineStartOffset(firstLine) < trimmedLength) firstLine++;
+      return Math.min(Math.max(line, firstLine), endLine + 1);
     }
 
     private Filter.Result analyzeLine(int line) {
@@ -144,6 +144,10 @@ public class ConsoleViewImpl extends JPanel implements ConsoleView, ObservableCo
 
   private boolean myOutputPaused;
 
+  // output statistics, accessed in EDT only
+  private long myFlushedChars;
+  private long myFlushNanos;
+
   private EditorEx myEditor;
 
   private final Object LOCK = new Object();
@@ -645,14 +649,17 @@ public class ConsoleViewImpl extends JPanel implements ConsoleView, ObservableCo
     Ref<CharSequence> addedTextRef = Ref.create();
     List<TokenBuffer.TokenInfo> deferredTokens;
     final Document document = myEditor.getDocument();
+    long droppedChars;
 
     synchronized (LOCK) {
       if (myOutputPaused) return;
 
       deferredTokens = myDeferredBuffer.drain();
       if (deferredTokens.isEmpty()) return;
+      droppedChars = myDeferredBuffer.getDroppedChars();
       cancelHeavyAlarm();
     }
+    long flushStart = System.nanoTime();
 
     final RangeMarker lastProcessedOutput = document.createRangeMarker(document.getTextLength(), document.getTextLength());
 
@@ -681,6 +688,11 @@ public class ConsoleViewImpl extends JPanel implements ConsoleView, ObservableCo
         }
       }
       addedTextRef.set(TokenBuffer.getRawText(refinedTokens));
+      if (addedTextRef.get().length() >= myDeferredBuffer.getCycleBufferSize() && document.getTextLength() != 0) {
+        // the cyclic buffer would trim all the old text right after the insertion anyway,
+        // so drop it (with its highlighters and hyperlinks) first instead of growing the document twice its limit
+        document.deleteString(0, document.getTextLength());
+      }
       document.insertString(document.getTextLength(), addedTextRef.get());
       // add token information as range markers
       // start from the end because portion of the text can be stripped from the document beginning because of a cycle buffer
@@ -728,6 +740,15 @@ public class ConsoleViewImpl extends JPanel implements ConsoleView, ObservableCo
       scrollToEnd();
     }
     sendUserInput(addedTextRef.get());
+
+    myFlushedChars += addedTextRef.get().length();
+    myFlushNanos += System.nanoTime() - flushStart;
+    if (LOG.isDebugEnabled()) {
+      long flushMs = TimeUnit.NANOSECONDS.toMillis(myFlushNanos);
+      LOG.debug("Console flushed " + myFlushedChars + " chars in " + flushMs + " ms" +
+                (flushMs == 0 ? "" : " (" + myFlushedChars * 1000 / flushMs + " chars/s)") +
+                ", dropped by cyclic buffer: " + droppedChars + " chars");
+    }
   }
 
   private static int evaluateBackspacesInTokens(@Nonnull List<? extends TokenBuffer.TokenInfo> source, int sourceStartIndex, @Nonnull List<? super TokenBuffer.TokenInfo> dest) {
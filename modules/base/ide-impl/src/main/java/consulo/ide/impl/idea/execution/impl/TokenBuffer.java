@@ -40,6 +40,7 @@ class TokenBuffer {
   private final Queue<TokenInfo> tokens = new Queue<>(10); // each call to print() is stored here
   private int size; // total lengths of all tokens
   private int startIndex; // index of text start in the first TokeInfo. This TokenInfo can become sliced after total size overflows maxCapacity
+  private long droppedChars; // total number of chars trimmed from the beginning because of maxCapacity overflow, never reset
 
   TokenBuffer(int maxCapacity) {
     this.maxCapacity = maxCapacity;
@@ -117,6 +118,7 @@ class TokenBuffer {
 
   private void trim() {
     // toss tokens from the beginning until size became < maxCapacity
+    int lengthBefore = length();
     while (size - startIndex > maxCapacity) {
       TokenInfo info = tokens.peekFirst();
       int length = info.length() - startIndex;
@@ -129,6 +131,7 @@ class TokenBuffer {
       tokens.pullFirst();
       size -= info.length();
     }
+    droppedChars += lengthBefore - length();
 
     //assert tokens.toList().stream().mapToInt(TokenInfo::length).sum() == size;
   }
@@ -195,6 +198,10 @@ class TokenBuffer {
     return maxCapacity;
   }
 
+  long getDroppedChars() {
+    return droppedChars;
+  }
+
   static class TokenInfo {
     @Nonnull
     final ConsoleViewContentType contentType;
@@ -31,6 +31,7 @@ import gnu.trove.TIntHashSet;
 import jakarta.annotation.Nonnull;
 
 import javax.swing.*;
+import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.ConcurrentMap;
 
@@ -68,6 +69,20 @@ public abstract class ContributorsBasedGotoByModel implements ChooseByNameModelE
     return false;
   }
 
+  // models with their own getElementsByName() must keep getting it called for every name
+  private static final ClassValue<Boolean> ourOverridesGetElementsByName = new ClassValue<>() {
+    @Override
+    protected Boolean computeValue(Class<?> type) {
+      try {
+        Method method = type.getMethod("getElementsByName", String.class, FindSymbolParameters.class, ProgressIndicator.class);
+        return method.getDeclaringClass() != ContributorsBasedGotoByModel.class;
+      }
+      catch (NoSuchMethodException e) {
+        return true;
+      }
+    }
+  };
+
   private final ConcurrentMap<ChooseByNameContributor, TIntHashSet> myContributorToItsSymbolsMap = ContainerUtil.createConcurrentWeakMap();
 
   @Override
@@ -161,23 +176,60 @@ public abstract class ContributorsBasedGotoByModel implements ChooseByNameModelE
 
   @Nonnull
   public Object[] getElementsByName(@Nonnull final String name, @Nonnull final FindSymbolParameters parameters, @Nonnull final ProgressIndicator canceled) {
+    return getContributorElementsByNames(Collections.singletonList(name), parameters, canceled).get(0);
+  }
+
+  /**
+   * Same as {@link #getElementsByName(String, FindSymbolParameters, ProgressIndicator)} for several names at once.
+   * Unless a subclass overrides {@link #getElementsByName(String, FindSymbolParameters, ProgressIndicator)},
+   * the names are looked up with {@link #getContributorElementsByNames} in one pass.
+   *
+   * @return elements for each of the {@code names}, in the same order
+   */
+  @Nonnull
+  public List<Object[]> getElementsByNames(@Nonnull final List<String> names, @Nonnull final FindSymbolParameters parameters, @Nonnull final ProgressIndicator canceled) {
+    if (!ourOverridesGetElementsByName.get(getClass())) {
+      return getContributorElementsByNames(names, parameters, canceled);
+    }
+    List<Object[]> result = new ArrayList<>(names.size());
+    for (String name : names) {
+      result.add(getElementsByName(name, parameters, canceled));
+    }
+    return result;
+  }
+
+  /**
+   * Every contributor gets all its names in one {@link ChooseByNameContributorEx#processElementsWithNames} call,
+   * so stub index based contributors read each containing file once for all the names.
+   *
+   * @return elements for each of the {@code names}, in the same order
+   */
+  @Nonnull
+  protected final List<Object[]> getContributorElementsByNames(@Nonnull final List<String> names,
+                                                               @Nonnull final FindSymbolParameters parameters,
+                                                               @Nonnull final ProgressIndicator canceled) {
     long elementByNameStarted = System.currentTimeMillis();
-    final List<NavigationItem> items = Collections.synchronizedList(new ArrayList<>());
+    final Map<String, List<NavigationItem>> itemsByName = new HashMap<>();
+    for (String name : names) {
+      itemsByName.put(name, Collections.synchronizedList(new ArrayList<>()));
+    }
 
     Processor<ChooseByNameContributor> processor = contributor -> {
       if (myProject.isDisposed()) {
         return true;
       }
       TIntHashSet filter = myContributorToItsSymbolsMap.get(contributor);
-      if (filter != null && !filter.contains(name.hashCode())) return true;
+      List<String> contributorNames = filter == null ? names : ContainerUtil.filter(names, name -> filter.contains(name.hashCode()));
+      if (contributorNames.isEmpty()) return true;
       try {
         boolean searchInLibraries = parameters.isSearchInLibraries();
         long contributorStarted = System.currentTimeMillis();
 
         if (contributor instanceof ChooseByNameContributorEx) {
-          ((ChooseByNameContributorEx)contributor).processElementsWithName(name, item -> {
+          ((ChooseByNameContributorEx)contributor).processElementsWithNames(contributorNames, (name, item) -> {
             canceled.checkCanceled();
-            if (acceptItem(item)) items.add(item);
+            List<NavigationItem> items = itemsByName.get(name);
+            if (items != null && acceptItem(item)) items.add(item);
             return true;
           }, parameters);
 
@@ -186,23 +238,28 @@ public abstract class ContributorsBasedGotoByModel implements ChooseByNameModelE
           }
         }
         else {
-          NavigationItem[] itemsByName = contributor.getItemsByName(name, parameters.getLocalPatternName(), myProject, searchInLibraries);
-          for (NavigationItem item : itemsByName) {
-            canceled.checkCanceled();
-            if (item == null) {
-              PluginExceptionUtil.logPluginError(LOG, "null item from contributor " + contributor + " for name " + name, null, contributor.getClass());
-              continue;
-            }
-            VirtualFile file = item instanceof PsiElement && !(item instanceof PomTargetPsiElement) ? PsiUtilCore.getVirtualFile((PsiElement)item) : null;
-            if (file != null && !parameters.getSearchScope().contains(file)) continue;
-
-            if (acceptItem(item)) {
-              items.add(item);
+          int found = 0;
+          for (String name : contributorNames) {
+            List<NavigationItem> items = itemsByName.get(name);
+            NavigationItem[] itemsByNameArray = contributor.getItemsByName(name, parameters.getLocalPatternName(), myProject, searchInLibraries);
+            found += itemsByNameArray.length;
+            for (NavigationItem item : itemsByNameArray) {
+              canceled.checkCanceled();
+              if (item == null) {
+                PluginExceptionUtil.logPluginError(LOG, "null item from contributor " + contributor + " for name " + name, null, contributor.getClass());
+                continue;
+              }
+              VirtualFile file = item instanceof PsiElement && !(item instanceof PomTargetPsiElement) ? PsiUtilCore.getVirtualFile((PsiElement)item) : null;
+              if (file != null && !parameters.getSearchScope().contains(file)) continue;
+
+              if (acceptItem(item)) {
+                items.add(item);
+              }
             }
           }
 
           if (LOG.isDebugEnabled()) {
-            LOG.debug(System.currentTimeMillis() - contributorStarted + "," + contributor + "," + itemsByName.length);
+            LOG.debug(System.currentTimeMillis() - contributorStarted + "," + contributor + "," + found);
           }
         }
       }
@@ -218,10 +275,15 @@ public abstract class ContributorsBasedGotoByModel implements ChooseByNameModelE
       canceled.cancel();
     }
     canceled.checkCanceled(); // if parallel job execution was canceled because of PCE, rethrow it from here
+
+    List<Object[]> result = new ArrayList<>(names.size());
+    for (String name : names) {
+      result.add(ArrayUtil.toObjectArray(itemsByName.get(name)));
+    }
     if (LOG.isDebugEnabled()) {
-      LOG.debug("Retrieving " + name + ":" + items.size() + " for " + (System.currentTimeMillis() - elementByNameStarted));
+      LOG.debug("Retrieving " + names + " for " + (System.currentTimeMillis() - elementByNameStarted));
     }
-    return ArrayUtil.toObjectArray(items);
+    return result;
   }
 
   /**
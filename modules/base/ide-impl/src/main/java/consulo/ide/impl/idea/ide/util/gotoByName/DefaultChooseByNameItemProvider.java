@@ -37,6 +37,9 @@ import java.util.function.Supplier;
 public class DefaultChooseByNameItemProvider implements ChooseByNameInScopeItemProvider {
   private static final Logger LOG = Logger.getInstance(DefaultChooseByNameItemProvider.class);
   private static final String UNIVERSAL_SEPARATOR = "\u0000";
+  // names are resolved in growing batches: the first results show up quickly, later ones share reads of the containing files
+  private static final int FIRST_NAMES_BATCH_SIZE = 4;
+  private static final int MAX_NAMES_BATCH_SIZE = 64;
   private final SmartPsiElementPointer myContext;
 
   public DefaultChooseByNameItemProvider(@Nullable PsiElement context) {
@@ -173,8 +176,10 @@ public class DefaultChooseByNameItemProvider implements ChooseByNameInScopeItemP
       long started = System.currentTimeMillis();
       String fullPattern = parameters.getCompletePattern();
       MinusculeMatcher matcher = buildPatternMatcher(namePattern);
+      NameEntryPointFilter entryPointFilter = createEntryPointFilter(base, namePattern);
       ((ChooseByNameModelEx)model).processNames(sequence -> {
         indicator.checkCanceled();
+        if (sequence == null || !entryPointFilter.accepts(sequence)) return false;
         MatchResult result = matches(base, fullPattern, matcher, sequence);
         if (result != null) {
           collect.accept(result);
@@ -232,29 +237,39 @@ public class DefaultChooseByNameItemProvider implements ChooseByNameInScopeItemP
 
     MinusculeMatcher fullMatcher = getFullMatcher(parameters, base);
 
-    for (MatchResult result : namesList) {
+    int batchSize = FIRST_NAMES_BATCH_SIZE;
+    int from = 0;
+    while (from < namesList.size()) {
       indicator.checkCanceled();
-      String name = result.elementName;
+      int to = model instanceof ContributorsBasedGotoByModel ? Math.min(from + batchSize, namesList.size()) : from + 1;
+      List<? extends MatchResult> batch = namesList.subList(from, to);
+      from = to;
+      batchSize = Math.min(batchSize * 2, MAX_NAMES_BATCH_SIZE);
 
       // use interruptible call if possible
-      Object[] elements = model instanceof ContributorsBasedGotoByModel
-                          ? ((ContributorsBasedGotoByModel)model).getElementsByName(name, parameters, indicator)
-                          : model.getElementsByName(name, everywhere, getNamePattern(base, parameters.getCompletePattern()));
-      if (elements.length > 1) {
-        sameNameElements.clear();
-        for (final Object element : elements) {
-          indicator.checkCanceled();
-          if (matchQualifiedName(model, fullMatcher, element) != null) {
-            sameNameElements.add(Pair.create(element, result));
+      List<Object[]> batchElements = model instanceof ContributorsBasedGotoByModel
+                                     ? ((ContributorsBasedGotoByModel)model).getElementsByNames(ContainerUtil.map(batch, r -> r.elementName), parameters, indicator)
+                                     : Collections.singletonList(model.getElementsByName(batch.get(0).elementName, everywhere, getNamePattern(base, parameters.getCompletePattern())));
+
+      for (int i = 0; i < batch.size(); i++) {
+        MatchResult result = batch.get(i);
+        Object[] elements = batchElements.get(i);
+        if (elements.length > 1) {
+          sameNameElements.clear();
+          for (final Object element : elements) {
+            indicator.checkCanceled();
+            if (matchQualifiedName(model, fullMatcher, element) != null) {
+              sameNameElements.add(Pair.create(element, result));
+            }
           }
+          Collections.sort(sameNameElements, weightComparator);
+          List<FoundItemDescriptor<?>> processedItems = ContainerUtil.map(sameNameElements, p -> new FoundItemDescriptor<>(p.first, p.second.matchingDegree));
+          if (!ContainerUtil.process(processedItems, consumer)) return false;
         }
-        Collections.sort(sameNameElements, weightComparator);
-        List<FoundItemDescriptor<?>> processedItems = ContainerUtil.map(sameNameElements, p -> new FoundItemDescriptor<>(p.first, p.second.matchingDegree));
-        if (!ContainerUtil.process(processedItems, consumer)) return false;
-      }
-      else if (elements.length == 1) {
-        if (matchQualifiedName(model, fullMatcher, elements[0]) != null) {
-          if (!consumer.process(new FoundItemDescriptor<>(elements[0], result.matchingDegree))) return false;
+        else if (elements.length == 1) {
+          if (matchQualifiedName(model, fullMatcher, elements[0]) != null) {
+            if (!consumer.process(new FoundItemDescriptor<>(elements[0], result.matchingDegree))) return false;
+          }
         }
       }
     }
@@ -337,8 +352,10 @@ public class DefaultChooseByNameItemProvider implements ChooseByNameInScopeItemP
                                             final ProgressIndicator indicator,
                                             @Nonnull final Consumer<? super MatchResult> consumer) {
     MinusculeMatcher matcher = buildPatternMatcher(pattern);
+    NameEntryPointFilter entryPointFilter = createEntryPointFilter(base, pattern);
     Processor<String> processor = name -> {
       ProgressManager.checkCanceled();
+      if (name == null || !entryPointFilter.accepts(name)) return true;
       MatchResult result = matches(base, pattern, matcher, name);
       if (result != null) {
         consumer.accept(result);
@@ -395,6 +412,12 @@ public class DefaultChooseByNameItemProvider implements ChooseByNameInScopeItemP
     return fragments != null ? new MatchResult(name, matcher.matchingDegree(name, false, fragments), MinusculeMatcher.isStartMatch(fragments)) : null;
   }
 
+  @Nonnull
+  private static NameEntryPointFilter createEntryPointFilter(@Nonnull ChooseByNameViewModel base, @Nonnull String pattern) {
+    // custom matchers aren't anchored at the name start
+    return NameEntryPointFilter.forPattern(base.getModel() instanceof CustomMatcherModel ? "" : pattern);
+  }
+
   @Nonnull
   private static MinusculeMatcher buildPatternMatcher(@Nonnull String pattern) {
     return NameUtil.buildMatcher(pattern, NameUtil.MatchingCaseSensitivity.NONE);
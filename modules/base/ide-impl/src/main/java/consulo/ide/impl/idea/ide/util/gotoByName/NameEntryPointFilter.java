@@ -0,0 +1,74 @@
+/*
+ * Copyright 2013-2026 consulo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package consulo.ide.impl.idea.ide.util.gotoByName;
+
+import consulo.application.util.matcher.FixingLayoutMatcher;
+import consulo.util.lang.StringUtil;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+/**
+ * Necessary condition for a match of a case-insensitive {@link consulo.application.util.matcher.NameUtil#buildMatcher} matcher,
+ * which is much cheaper than the matcher itself.
+ * <p>
+ * Unless the pattern starts with a wildcard, such a matcher anchors its first fragment at the start of the name,
+ * so the first name character has to be the first pattern character in either case,
+ * or the first character of the pattern typed in a wrong keyboard layout.
+ */
+final class NameEntryPointFilter {
+  private static final NameEntryPointFilter ACCEPT_ALL = new NameEntryPointFilter(null);
+
+  @Nullable
+  private final char[] myEntryChars;
+
+  private NameEntryPointFilter(@Nullable char[] entryChars) {
+    myEntryChars = entryChars;
+  }
+
+  @Nonnull
+  static NameEntryPointFilter forPattern(@Nonnull String pattern) {
+    char first = getFirstPatternChar(pattern);
+    if (first == 0) return ACCEPT_ALL;
+
+    String fixedLayout = FixingLayoutMatcher.fixLayout(pattern);
+    char fixedFirst = fixedLayout == null ? 0 : getFirstPatternChar(fixedLayout);
+    if (fixedFirst == 0 || fixedFirst == first) {
+      return new NameEntryPointFilter(new char[]{first, StringUtil.toLowerCase(first), StringUtil.toUpperCase(first)});
+    }
+    return new NameEntryPointFilter(new char[]{first, StringUtil.toLowerCase(first), StringUtil.toUpperCase(first),
+      fixedFirst, StringUtil.toLowerCase(fixedFirst), StringUtil.toUpperCase(fixedFirst)});
+  }
+
+  // 0 when any name can match, i.e. the pattern is empty or starts with a wildcard
+  private static char getFirstPatternChar(@Nonnull String pattern) {
+    String trimmed = StringUtil.trimEnd(pattern, "* ");
+    if (trimmed.isEmpty()) return 0;
+    char c = trimmed.charAt(0);
+    return c == ' ' || c == '*' ? 0 : c;
+  }
+
+  boolean accepts(@Nonnull String name) {
+    char[] entryChars = myEntryChars;
+    if (entryChars == null) return true;
+    if (name.isEmpty()) return false;
+
+    char c = name.charAt(0);
+    for (char entryChar : entryChars) {
+      if (entryChar == c) return true;
+    }
+    return false;
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2013-2026 consulo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package consulo.ide.impl.idea.internal;
+
+import consulo.annotation.component.ActionImpl;
+import consulo.annotation.component.ActionParentRef;
+import consulo.annotation.component.ActionRef;
+import consulo.application.dumb.DumbAware;
+import consulo.ide.impl.idea.codeInspection.InspectionProfilingStatistics;
+import consulo.ide.impl.idea.openapi.util.io.FileUtil;
+import consulo.logging.Logger;
+import consulo.project.ui.notification.Notification;
+import consulo.project.ui.notification.NotificationType;
+import consulo.project.ui.notification.Notifications;
+import consulo.ui.annotation.RequiredUIAccess;
+import consulo.ui.ex.action.AnAction;
+import consulo.ui.ex.action.AnActionEvent;
+import consulo.util.io.CharsetToolkit;
+import jakarta.annotation.Nonnull;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Writes per-inspection timings collected with {@code -Dinspection.profiling=true} to a temp file.
+ */
+@ActionImpl(id = "DumpInspectionProfilingStatistics", parents = @ActionParentRef(@ActionRef(id = "Internal")))
+public class DumpInspectionProfilingStatisticsAction extends AnAction implements DumbAware {
+  private static final Logger LOG = Logger.getInstance(DumpInspectionProfilingStatisticsAction.class);
+
+  public DumpInspectionProfilingStatisticsAction() {
+    super("Dump inspection profiling statistics");
+  }
+
+  @RequiredUIAccess
+  @Override
+  public void actionPerformed(@Nonnull AnActionEvent e) {
+    File file = new File(FileUtil.getTempDirectory(), "inspection-profiling.tsv");
+    try {
+      FileUtil.writeToFile(file, InspectionProfilingStatistics.dump().getBytes(CharsetToolkit.UTF8_CHARSET));
+    }
+    catch (IOException ex) {
+      LOG.error(ex);
+      return;
+    }
+    InspectionProfilingStatistics.clear();
+    Notifications.Bus.notify(new Notification(Notifications.SYSTEM_MESSAGES_GROUP, "Inspection profiling statistics dumped", file.getAbsolutePath(),
+                                              NotificationType.INFORMATION));
+  }
+
+  @RequiredUIAccess
+  @Override
+  public void update(@Nonnull AnActionEvent e) {
+    e.getPresentation().setEnabled(InspectionProfilingStatistics.isEnabled());
+  }
+}
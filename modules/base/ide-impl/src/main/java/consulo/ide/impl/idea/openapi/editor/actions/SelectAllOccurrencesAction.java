@@ -21,6 +21,7 @@ import consulo.find.FindResult;
 import consulo.codeEditor.action.EditorActionUtil;
 import consulo.dataContext.DataContext;
 import consulo.codeEditor.Caret;
+import consulo.codeEditor.CaretState;
 import consulo.codeEditor.Editor;
 import consulo.codeEditor.ScrollType;
 import consulo.codeEditor.action.EditorAction;
@@ -29,6 +30,9 @@ import consulo.document.util.TextRange;
 
 import jakarta.annotation.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class SelectAllOccurrencesAction extends EditorAction {
   public SelectAllOccurrencesAction() {
     super(new Handler());
@@ -65,17 +69,22 @@ public class SelectAllOccurrencesAction extends EditorAction {
       model.setCaseSensitive(true);
       model.setWholeWordsOnly(true);
 
+      // collect all carets first and set them at once: adding carets one by one checks each of them against all existing ones,
+      // while the caret model merges overlapping carets (e.g. the one at the initial selection) in a single sorted pass
+      List<CaretState> caretStates = new ArrayList<>(editor.getCaretModel().getCaretsAndSelections());
       int searchStartOffset = 0;
       FindResult findResult = findManager.findString(editor.getDocument().getCharsSequence(), searchStartOffset, model);
       while (findResult.isStringFound()) {
         int newCaretOffset = caretShiftFromSelectionStart + findResult.getStartOffset();
         EditorActionUtil.makePositionVisible(editor, newCaretOffset);
-        Caret newCaret = editor.getCaretModel().addCaret(editor.offsetToVisualPosition(newCaretOffset));
-        if (newCaret != null) {
-          setSelection(editor, newCaret, findResult);
-        }
+        EditorActionUtil.makePositionVisible(editor, findResult.getStartOffset());
+        EditorActionUtil.makePositionVisible(editor, findResult.getEndOffset());
+        caretStates.add(new CaretState(editor.offsetToLogicalPosition(newCaretOffset),
+                                       editor.offsetToLogicalPosition(findResult.getStartOffset()),
+                                       editor.offsetToLogicalPosition(findResult.getEndOffset())));
         findResult = findManager.findString(editor.getDocument().getCharsSequence(), findResult.getEndOffset(), model);
       }
+      editor.getCaretModel().setCaretsAndSelections(caretStates);
       editor.getScrollingModel().scrollToCaret(ScrollType.RELATIVE);
     }
   }
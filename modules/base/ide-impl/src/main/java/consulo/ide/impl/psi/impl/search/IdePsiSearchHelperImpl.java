@@ -26,6 +26,7 @@ import consulo.application.util.concurrent.JobLauncher;
 import consulo.component.ProcessCanceledException;
 import consulo.disposer.Disposable;
 import consulo.disposer.Disposer;
+import consulo.logging.Logger;
 import consulo.language.cacheBuilder.CacheManager;
 import consulo.language.impl.internal.psi.search.PsiSearchHelperImpl;
 import consulo.language.psi.PsiManager;
@@ -39,6 +40,8 @@ import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 
@@ -49,6 +52,8 @@ import java.util.function.Predicate;
 @Singleton
 @ServiceImpl
 public class IdePsiSearchHelperImpl extends PsiSearchHelperImpl {
+  private static final Logger LOG = Logger.getInstance(IdePsiSearchHelperImpl.class);
+
   @Inject
   public IdePsiSearchHelperImpl(PsiManager manager,
                                 DumbService dumbService,
@@ -57,7 +62,8 @@ public class IdePsiSearchHelperImpl extends PsiSearchHelperImpl {
   }
 
   // Tries to run {@code localProcessor} for each file in {@code files} concurrently on ForkJoinPool.
-  // When encounters write action request, stops all threads, waits for write action to finish and re-starts all threads again.
+  // When encounters write action request, stops all threads, waits for write action to finish and re-starts threads again
+  // for the files which were not processed yet, keeping the order chosen by the caller.
   // {@code localProcessor} must be as idempotent as possible.
   @Override
   public boolean processFilesConcurrentlyDespiteWriteActions(@Nonnull Project project,
@@ -69,89 +75,99 @@ public class IdePsiSearchHelperImpl extends PsiSearchHelperImpl {
     if (!app.isDispatchThread()) {
       CoreProgressManager.assertUnderProgress(progress);
     }
-    List<VirtualFile> processedFiles = Collections.synchronizedList(new ArrayList<>(files.size()));
-    while (true) {
-      ProgressManager.checkCanceled();
-      ProgressIndicator wrapper = new SensitiveProgressWrapper(progress);
-      ApplicationListener listener = new ApplicationListener() {
-        @Override
-        public void beforeWriteActionStart(@Nonnull Object action) {
-          wrapper.cancel();
-        }
-      };
-      processedFiles.clear();
-      Disposable disposable = Disposable.newDisposable();
-      app.addApplicationListener(listener, disposable);
-      boolean processorCanceled = false;
-      try {
-        if (app.isWriteAccessAllowed() || app.isReadAccessAllowed() && app.isWriteActionPending()) {
-          // no point in processing in separate threads - they are doomed to fail to obtain read action anyway
-          // do not wrap in impatient reader because every read action inside would trigger AU.CRRAE
-          processorCanceled = !ContainerUtil.process(files, localProcessor);
-          if (processorCanceled) {
-            stopped.set(true);
+    long start = System.nanoTime();
+    int totalFiles = files.size();
+    int restarts = 0;
+    Set<VirtualFile> processedFiles = ConcurrentHashMap.newKeySet(files.size());
+    List<? extends VirtualFile> remaining = files;
+    try {
+      while (true) {
+        ProgressManager.checkCanceled();
+        ProgressIndicator wrapper = new SensitiveProgressWrapper(progress);
+        ApplicationListener listener = new ApplicationListener() {
+          @Override
+          public void beforeWriteActionStart(@Nonnull Object action) {
+            wrapper.cancel();
           }
-          processedFiles.addAll(files);
-        }
-        else if (app.isWriteActionPending()) {
-          // we don't have read action now so wait for write action to complete
-        }
-        else {
-          AtomicBoolean someTaskFailed = new AtomicBoolean();
-          Predicate<VirtualFile> processor = vfile -> {
-            ProgressManager.checkCanceled();
-            // optimisation: avoid unnecessary processing if it's doomed to fail because some other task has failed already,
-            // and bail out of fork/join task as soon as possible
-            if (someTaskFailed.get()) {
-              return false;
+        };
+        Disposable disposable = Disposable.newDisposable();
+        app.addApplicationListener(listener, disposable);
+        boolean processorCanceled = false;
+        try {
+          if (app.isWriteAccessAllowed() || app.isReadAccessAllowed() && app.isWriteActionPending()) {
+            // no point in processing in separate threads - they are doomed to fail to obtain read action anyway
+            // do not wrap in impatient reader because every read action inside would trigger AU.CRRAE
+            processorCanceled = !ContainerUtil.process(remaining, localProcessor);
+            if (processorCanceled) {
+              stopped.set(true);
             }
+            processedFiles.addAll(remaining);
+          }
+          else if (app.isWriteActionPending()) {
+            // we don't have read action now so wait for write action to complete
+          }
+          else {
+            AtomicBoolean someTaskFailed = new AtomicBoolean();
+            Predicate<VirtualFile> processor = vfile -> {
+              ProgressManager.checkCanceled();
+              // optimisation: avoid unnecessary processing if it's doomed to fail because some other task has failed already,
+              // and bail out of fork/join task as soon as possible
+              if (someTaskFailed.get()) {
+                return false;
+              }
+              try {
+                // wrap in unconditional impatient reader to bail early at write action start,
+                // regardless of whether was called from highlighting (already impatient-wrapped) or Find Usages action
+                app.executeByImpatientReader(() -> {
+                  if (localProcessor.test(vfile)) {
+                    processedFiles.add(vfile);
+                  }
+                  else {
+                    stopped.set(true);
+                  }
+                });
+              }
+              catch (ProcessCanceledException e) {
+                someTaskFailed.set(true);
+                throw e;
+              }
+              return !stopped.get();
+            };
+            // try to run parallel read actions but fail as soon as possible
             try {
-              // wrap in unconditional impatient reader to bail early at write action start,
-              // regardless of whether was called from highlighting (already impatient-wrapped) or Find Usages action
-              app.executeByImpatientReader(() -> {
-                if (localProcessor.test(vfile)) {
-                  processedFiles.add(vfile);
-                }
-                else {
-                  stopped.set(true);
-                }
-              });
+              JobLauncher.getInstance().invokeConcurrentlyUnderProgress(remaining, wrapper, processor);
+              processorCanceled = stopped.get();
             }
             catch (ProcessCanceledException e) {
-              someTaskFailed.set(true);
-              throw e;
+              // we can be interrupted by wrapper (means write action is about to start) or by genuine exception in progress
+              progress.checkCanceled();
             }
-            return !stopped.get();
-          };
-          // try to run parallel read actions but fail as soon as possible
-          try {
-            JobLauncher.getInstance().invokeConcurrentlyUnderProgress(files, wrapper, processor);
-            processorCanceled = stopped.get();
-          }
-          catch (ProcessCanceledException e) {
-            // we can be interrupted by wrapper (means write action is about to start) or by genuine exception in progress
-            progress.checkCanceled();
           }
         }
-      }
-      finally {
-        Disposer.dispose(disposable);
-      }
-      if (processorCanceled) {
-        return false;
-      }
+        finally {
+          Disposer.dispose(disposable);
+        }
+        if (processorCanceled) {
+          return false;
+        }
 
-      if (processedFiles.size() == files.size()) {
-        break;
+        // the files already processed are never visited again
+        remaining = ContainerUtil.filter(remaining, file -> !processedFiles.contains(file));
+        if (remaining.isEmpty()) {
+          break;
+        }
+        // we failed to run read action in job launcher thread
+        // run read action in our thread instead to wait for a write action to complete and resume parallel processing
+        restarts++;
+        DumbService.getInstance(project).runReadActionInSmartMode(EmptyRunnable.getInstance());
       }
-      // we failed to run read action in job launcher thread
-      // run read action in our thread instead to wait for a write action to complete and resume parallel processing
-      DumbService.getInstance(project).runReadActionInSmartMode(EmptyRunnable.getInstance());
-      Set<VirtualFile> t = new HashSet<>(files);
-      synchronized (processedFiles) {
-        t.removeAll(processedFiles);
+    }
+    finally {
+      if (LOG.isDebugEnabled()) {
+        long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        LOG.debug("Processed " + processedFiles.size() + " of " + totalFiles + " files in " + elapsedMs + "ms (" +
+                  processedFiles.size() * 1000L / elapsedMs + " files/s), restarted after write actions " + restarts + " times");
       }
-      files = new ArrayList<>(t);
     }
     return true;
   }
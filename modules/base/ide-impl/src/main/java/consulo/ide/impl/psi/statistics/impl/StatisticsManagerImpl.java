@@ -34,20 +34,25 @@ import org.jetbrains.annotations.TestOnly;
 
 import jakarta.annotation.Nonnull;
 import java.io.*;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.List;
+import java.util.*;
 
 @Singleton
 @ServiceImpl
 public class StatisticsManagerImpl extends StatisticsManager {
   private static final int UNIT_COUNT = 997;
+  // recently used units stay strongly reachable, so that completion doesn't re-read them from disk after every GC
+  private static final int RECENT_UNIT_COUNT = 128;
   private static final Object LOCK = new Object();
 
   @NonNls private static final String STORE_PATH = ContainerPathManager.get().getSystemPath() + File.separator + "stat";
 
   private final List<SoftReference<StatisticsUnit>> myUnits = new ArrayList<>(Collections.nCopies(UNIT_COUNT, null));
+  private final Map<Integer, StatisticsUnit> myRecentUnits = new LinkedHashMap<Integer, StatisticsUnit>(RECENT_UNIT_COUNT, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Integer, StatisticsUnit> eldest) {
+      return size() > RECENT_UNIT_COUNT;
+    }
+  };
   private final HashSet<StatisticsUnit> myModifiedUnits = new HashSet<>();
   private boolean myTestingStatistics;
 
@@ -66,9 +71,8 @@ public class StatisticsManagerImpl extends StatisticsManager {
 
   private int doGetUseCount(StatisticsInfo info) {
     String key1 = info.getContext();
-    int unitNumber = getUnitNumber(key1);
+    StatisticsUnit unit = getUnit(getUnitNumber(key1));
     synchronized (LOCK) {
-      StatisticsUnit unit = getUnit(unitNumber);
       return unit.getData(key1, info.getValue());
     }
   }
@@ -86,9 +90,8 @@ public class StatisticsManagerImpl extends StatisticsManager {
 
   private int doGetRecency(StatisticsInfo info) {
     String key1 = info.getContext();
-    int unitNumber = getUnitNumber(key1);
+    StatisticsUnit unit = getUnit(getUnitNumber(key1));
     synchronized (LOCK) {
-      StatisticsUnit unit = getUnit(unitNumber);
       return unit.getRecency(key1, info.getValue());
     }
   }
@@ -109,9 +112,8 @@ public class StatisticsManagerImpl extends StatisticsManager {
 
   private void doIncUseCount(StatisticsInfo info) {
     final String key1 = info.getContext();
-    int unitNumber = getUnitNumber(key1);
+    StatisticsUnit unit = getUnit(getUnitNumber(key1));
     synchronized (LOCK) {
-      StatisticsUnit unit = getUnit(unitNumber);
       unit.incData(key1, info.getValue());
       myModifiedUnits.add(unit);
     }
@@ -120,33 +122,57 @@ public class StatisticsManagerImpl extends StatisticsManager {
   @Override
   public StatisticsInfo[] getAllValues(final String context) {
     final String[] strings;
+    StatisticsUnit unit = getUnit(getUnitNumber(context));
     synchronized (LOCK) {
-      strings = getUnit(getUnitNumber(context)).getKeys2(context);
+      strings = unit.getKeys2(context);
     }
     return consulo.util.collection.ContainerUtil.map2Array(strings, StatisticsInfo.class, s -> new StatisticsInfo(context, s));
   }
 
   @Override
   public void save() {
+    List<StatisticsUnit> modified;
     synchronized (LOCK) {
-      if (!ApplicationManager.getApplication().isUnitTestMode()){
-        ApplicationManager.getApplication().assertIsDispatchThread();
-        for (StatisticsUnit unit : myModifiedUnits) {
-          saveUnit(unit.getNumber());
-        }
-      }
+      modified = new ArrayList<>(myModifiedUnits);
       myModifiedUnits.clear();
     }
+    if (ApplicationManager.getApplication().isUnitTestMode()) return;
+
+    // units are only modified on EDT, so they can be written without blocking readers on LOCK
+    ApplicationManager.getApplication().assertIsDispatchThread();
+    for (StatisticsUnit unit : modified) {
+      saveUnit(unit);
+    }
   }
 
   private StatisticsUnit getUnit(int unitNumber) {
-    StatisticsUnit unit = SoftReference.dereference(myUnits.get(unitNumber));
-    if (unit != null) return unit;
-    unit = loadUnit(unitNumber);
-    if (unit == null){
-      unit = new StatisticsUnit(unitNumber);
+    synchronized (LOCK) {
+      StatisticsUnit unit = findLoadedUnit(unitNumber);
+      if (unit != null) return unit;
+    }
+
+    // read from disk outside the lock, so that lookups of other units don't wait for it
+    StatisticsUnit loaded = loadUnit(unitNumber);
+    synchronized (LOCK) {
+      StatisticsUnit unit = findLoadedUnit(unitNumber);
+      if (unit != null) return unit;
+      myUnits.set(unitNumber, new SoftReference<>(loaded));
+      myRecentUnits.put(unitNumber, loaded);
+      return loaded;
+    }
+  }
+
+  /**
+   * Should be called under {@link #LOCK}
+   */
+  private StatisticsUnit findLoadedUnit(int unitNumber) {
+    StatisticsUnit unit = myRecentUnits.get(unitNumber);
+    if (unit == null) {
+      unit = SoftReference.dereference(myUnits.get(unitNumber));
+      if (unit != null) {
+        myRecentUnits.put(unitNumber, unit);
+      }
     }
-    myUnits.set(unitNumber, new SoftReference<>(unit));
     return unit;
   }
 
@@ -163,10 +189,9 @@ public class StatisticsManagerImpl extends StatisticsManager {
     return unit;
   }
 
-  private void saveUnit(int unitNumber){
+  private static void saveUnit(StatisticsUnit unit){
     if (!createStoreFolder()) return;
-    StatisticsUnit unit = getUnit(unitNumber);
-    String path = getPathToUnit(unitNumber);
+    String path = getPathToUnit(unit.getNumber());
     try{
       OutputStream out = new BufferedOutputStream(new FileOutputStream(path));
       out = new ScrambledOutputStream(out);
@@ -218,6 +243,7 @@ public class StatisticsManagerImpl extends StatisticsManager {
       public void dispose() {
         synchronized (LOCK) {
           Collections.fill(myUnits, null);
+          myRecentUnits.clear();
         }
         myTestingStatistics = false;
       }
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2013-2026 consulo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package consulo.ide.impl.psi.stubs;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Stub ids lookup for many keys of one stub index.
+ * Keys are grouped by containing file, files are visited in id order (which is also the order of their records in the forward storage),
+ * and the serialized stub tree of every file is read at most once, no matter how many of the keys the file contains.
+ *
+ * @see StubIndexImpl#processElementsForKeys
+ */
+abstract class StubIdsBatch<Key, File, Tree, Ids> {
+  private final SortedMap<Integer, List<Key>> myKeysByFile = new TreeMap<>();
+
+  void add(@Nonnull Key key, int fileId) {
+    myKeysByFile.computeIfAbsent(fileId, __ -> new ArrayList<>(1)).add(key);
+  }
+
+  boolean isEmpty() {
+    return myKeysByFile.isEmpty();
+  }
+
+  /**
+   * @return file to process, or null if the file has to be skipped
+   */
+  @Nullable
+  protected abstract File findFile(int fileId);
+
+  @Nullable
+  protected abstract Ids getCachedIds(@Nonnull Key key, int fileId);
+
+  /**
+   * @return serialized stub tree of the file, or null if it can't be read; remaining keys of the file are skipped then
+   */
+  @Nullable
+  protected abstract Tree readTree(int fileId);
+
+  /**
+   * Restores and caches ids of the key from the stub tree of the file.
+   */
+  @Nullable
+  protected abstract Ids restoreIds(@Nonnull Tree tree, @Nonnull Key key, int fileId);
+
+  /**
+   * @return false if the processor stopped the processing
+   */
+  boolean process(@Nonnull IdsProcessor<? super File, ? super Key, ? super Ids> processor) {
+    for (Map.Entry<Integer, List<Key>> entry : myKeysByFile.entrySet()) {
+      int fileId = entry.getKey();
+      File file = findFile(fileId);
+      if (file == null) continue;
+
+      Tree tree = null;
+      for (Key key : entry.getValue()) {
+        Ids ids = getCachedIds(key, fileId);
+        if (ids == null) {
+          if (tree == null) {
+            tree = readTree(fileId);
+            if (tree == null) break;
+          }
+          ids = restoreIds(tree, key, fileId);
+        }
+        if (!processor.process(file, key, ids)) return false;
+      }
+    }
+    return true;
+  }
+
+  interface IdsProcessor<File, Key, Ids> {
+    /**
+     * @param ids ids of the key in the file, null if the stub tree of the file has no such key
+     */
+    boolean process(@Nonnull File file, @Nonnull Key key, @Nullable Ids ids);
+  }
+}
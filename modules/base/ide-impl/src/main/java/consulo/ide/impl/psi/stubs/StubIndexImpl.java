@@ -57,6 +57,7 @@ import java.util.*;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.BiPredicate;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -392,16 +393,8 @@ public final class StubIndexImpl extends StubIndex implements PersistentStateCom
         }
 
         StubIdList list = myCachedStubIds.get(indexKey).get().computeIfAbsent(new CompositeKey(key, id), __ -> {
-          try {
-            Map<Integer, SerializedStubTree> data = stubUpdatingIndex.getIndexedFileData(id);
-            LOG.assertTrue(data.size() == 1);
-            SerializedStubTree tree = data.values().iterator().next();
-            return tree.restoreIndexedStubs(StubForwardIndexExternalizer.IdeStubForwardIndexesExternalizer.INSTANCE, indexKey, key);
-          }
-          catch (StorageException | IOException e) {
-            forceRebuild(e);
-            return null;
-          }
+          SerializedStubTree tree = readSerializedStubTree(stubUpdatingIndex, id);
+          return tree == null ? null : restoreStubIdList(tree, indexKey, key);
         });
         if (list == null) {
           LOG.error("StubUpdatingIndex & " + indexKey + " stub index mismatch. No stub index key is present");
@@ -424,6 +417,105 @@ public final class StubIndexImpl extends StubIndex implements PersistentStateCom
     return true;
   }
 
+  @Override
+  public <Key, Psi extends PsiElement> boolean processElementsForKeys(@Nonnull StubIndexKey<Key, Psi> indexKey,
+                                                                      @Nonnull Collection<? extends Key> keys,
+                                                                      @Nonnull Project project,
+                                                                      @Nullable ProjectAwareSearchScope scope,
+                                                                      @Nullable IdFilter idFilter,
+                                                                      @Nonnull Class<Psi> requiredClass,
+                                                                      @Nonnull BiPredicate<? super Key, ? super Psi> processor) {
+    if (keys.size() <= 1) {
+      return super.processElementsForKeys(indexKey, keys, project, scope, idFilter, requiredClass, processor);
+    }
+
+    UpdatableIndex<Integer, SerializedStubTree, FileContent> stubUpdatingIndex = getStubUpdatingIndex();
+    if (stubUpdatingIndex == null) return true;
+    PersistentFS fs = (PersistentFS)ManagingFS.getInstance();
+    Map<CompositeKey, StubIdList> cachedStubIds = myCachedStubIds.get(indexKey).get();
+    StubIdsBatch<Key, VirtualFile, SerializedStubTree, StubIdList> batch = new StubIdsBatch<>() {
+      @Nullable
+      @Override
+      protected VirtualFile findFile(int fileId) {
+        ProgressManager.checkCanceled();
+        VirtualFile file = IndexInfrastructure.findFileByIdIfCached(fs, fileId);
+        return file == null || (scope != null && !scope.contains(file)) ? null : file;
+      }
+
+      @Nullable
+      @Override
+      protected StubIdList getCachedIds(@Nonnull Key key, int fileId) {
+        return cachedStubIds.get(new CompositeKey(key, fileId));
+      }
+
+      @Nullable
+      @Override
+      protected SerializedStubTree readTree(int fileId) {
+        return readSerializedStubTree(stubUpdatingIndex, fileId);
+      }
+
+      @Nullable
+      @Override
+      protected StubIdList restoreIds(@Nonnull SerializedStubTree tree, @Nonnull Key key, int fileId) {
+        StubIdList list = restoreStubIdList(tree, indexKey, key);
+        if (list != null) cachedStubIds.put(new CompositeKey(key, fileId), list);
+        return list;
+      }
+    };
+    for (Key key : keys) {
+      IdIterator ids = getContainingIds(indexKey, key, project, idFilter, scope);
+      while (ids.hasNext()) {
+        batch.add(key, ids.next());
+      }
+    }
+    if (batch.isEmpty()) return true;
+
+    try {
+      return batch.process((file, key, list) -> {
+        if (list == null) {
+          // only this key in this file is skipped, other names of the batch are still processed
+          LOG.error("StubUpdatingIndex & " + indexKey + " stub index mismatch. No stub index key is present");
+          return true;
+        }
+        return myStubProcessingHelper.processStubsInFile(project, file, list, psi -> processor.test(key, psi), scope, requiredClass);
+      });
+    }
+    catch (RuntimeException e) {
+      final Throwable cause = FileBasedIndexImpl.getCauseToRebuildIndex(e);
+      if (cause != null) {
+        forceRebuild(cause);
+      }
+      else {
+        throw e;
+      }
+    }
+    return true;
+  }
+
+  @Nullable
+  private SerializedStubTree readSerializedStubTree(@Nonnull UpdatableIndex<Integer, SerializedStubTree, FileContent> stubUpdatingIndex, int fileId) {
+    try {
+      Map<Integer, SerializedStubTree> data = stubUpdatingIndex.getIndexedFileData(fileId);
+      LOG.assertTrue(data.size() == 1);
+      return data.values().iterator().next();
+    }
+    catch (StorageException e) {
+      forceRebuild(e);
+      return null;
+    }
+  }
+
+  @Nullable
+  private <Key> StubIdList restoreStubIdList(@Nonnull SerializedStubTree tree, @Nonnull StubIndexKey<Key, ?> indexKey, @Nonnull Key key) {
+    try {
+      return tree.restoreIndexedStubs(StubForwardIndexExternalizer.IdeStubForwardIndexesExternalizer.INSTANCE, indexKey, key);
+    }
+    catch (IOException e) {
+      forceRebuild(e);
+      return null;
+    }
+  }
+
   @SuppressWarnings("unchecked")
   private <Key> UpdatableIndex<Key, Void, FileContent> getIndex(@Nonnull StubIndexKey<Key, ?> indexKey) {
     return (UpdatableIndex<Key, Void, FileContent>)getAsyncState().myIndices.get(indexKey);
@@ -7,6 +7,7 @@ open module consulo.ide.impl {
   requires java.xml;
   requires java.rmi;
   requires java.management;
+  requires jdk.management;
   requires java.prefs;
   requires jdk.unsupported;
 
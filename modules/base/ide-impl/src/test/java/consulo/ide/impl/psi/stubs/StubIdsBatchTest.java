@@ -0,0 +1,114 @@
+/*
+ * Copyright 2013-2026 consulo.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package consulo.ide.impl.psi.stubs;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+public class StubIdsBatchTest {
+  private static class CountingBatch extends StubIdsBatch<String, Integer, String, String> {
+    private final Map<Integer, Integer> myTreeReads = new TreeMap<>();
+    private final Map<String, String> myCache = new HashMap<>();
+    private final Set<Integer> mySkippedFiles = new HashSet<>();
+
+    @Nullable
+    @Override
+    protected Integer findFile(int fileId) {
+      return mySkippedFiles.contains(fileId) ? null : fileId;
+    }
+
+    @Nullable
+    @Override
+    protected String getCachedIds(@Nonnull String key, int fileId) {
+      return myCache.get(key + "@" + fileId);
+    }
+
+    @Nullable
+    @Override
+    protected String readTree(int fileId) {
+      myTreeReads.merge(fileId, 1, Integer::sum);
+      return "tree" + fileId;
+    }
+
+    @Nullable
+    @Override
+    protected String restoreIds(@Nonnull String tree, @Nonnull String key, int fileId) {
+      String ids = key + "@" + fileId;
+      myCache.put(ids, ids);
+      return ids;
+    }
+  }
+
+  private static CountingBatch createBatch() {
+    CountingBatch batch = new CountingBatch();
+    // files are added out of order, as different keys produce them
+    batch.add("A", 3);
+    batch.add("A", 1);
+    batch.add("B", 1);
+    batch.add("B", 2);
+    batch.add("C", 1);
+    batch.add("C", 2);
+    return batch;
+  }
+
+  @Test
+  public void testEachStubTreeIsReadOnce() {
+    CountingBatch batch = createBatch();
+    List<String> processed = new ArrayList<>();
+
+    Assertions.assertTrue(batch.process((file, key, ids) -> processed.add(ids)));
+
+    Assertions.assertEquals(Map.of(1, 1, 2, 1, 3, 1), batch.myTreeReads);
+    Assertions.assertEquals(List.of("A@1", "B@1", "C@1", "B@2", "C@2", "A@3"), processed);
+  }
+
+  @Test
+  public void testCachedIdsDoNotReadStubTree() {
+    CountingBatch batch = createBatch();
+    Assertions.assertTrue(batch.process((file, key, ids) -> true));
+
+    CountingBatch second = createBatch();
+    second.myCache.putAll(batch.myCache);
+    Assertions.assertTrue(second.process((file, key, ids) -> true));
+
+    Assertions.assertTrue(second.myTreeReads.isEmpty());
+  }
+
+  @Test
+  public void testSkippedFileIsNotRead() {
+    CountingBatch batch = createBatch();
+    batch.mySkippedFiles.add(2);
+    List<Integer> files = new ArrayList<>();
+
+    Assertions.assertTrue(batch.process((file, key, ids) -> files.add(file)));
+
+    Assertions.assertEquals(List.of(1, 1, 1, 3), files);
+    Assertions.assertFalse(batch.myTreeReads.containsKey(2));
+  }
+
+  @Test
+  public void testStopProcessing() {
+    CountingBatch batch = createBatch();
+
+    Assertions.assertFalse(batch.process((file, key, ids) -> !key.equals("B")));
+
+    Assertions.assertEquals(Map.of(1, 1), batch.myTreeReads);
+  }
+}
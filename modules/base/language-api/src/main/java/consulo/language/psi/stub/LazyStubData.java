@@ -3,8 +3,8 @@ package consulo.language.psi.stub;
 
 import consulo.index.io.AbstractStringEnumerator;
 import consulo.util.collection.ArrayUtil;
+import consulo.util.io.UnsyncByteArrayInputStream;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.BitSet;
 
@@ -40,12 +40,14 @@ class LazyStubData {
     return stub;
   }
 
-  private ByteArrayInputStream stubBytes(int index) {
+  // a view over the shared buffer: materializing a single stub neither copies its bytes nor pays for synchronized reads
+  private UnsyncByteArrayInputStream stubBytes(int index) {
     int start = getDataStart(index);
-    if (start == 0) return new ByteArrayInputStream(ArrayUtil.EMPTY_BYTE_ARRAY);
+    if (start == 0) return new UnsyncByteArrayInputStream(ArrayUtil.EMPTY_BYTE_ARRAY);
 
     int end = myAllStarts.nextSetBit(start + 1);
     if (end < 0) end = mySerializedStubs.length + 1;
-    return new ByteArrayInputStream(mySerializedStubs, start - 1, end - start);
+    // note: UnsyncByteArrayInputStream takes an exclusive end position, not a length
+    return new UnsyncByteArrayInputStream(mySerializedStubs, start - 1, end - 1);
   }
 }
\ No newline at end of file
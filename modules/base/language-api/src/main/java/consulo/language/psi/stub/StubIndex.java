@@ -21,6 +21,7 @@ import jakarta.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.BiPredicate;
 import java.util.function.Predicate;
 
 @ServiceAPI(value = ComponentScope.APPLICATION, lazy = false)
@@ -62,6 +63,24 @@ public abstract class StubIndex {
     return processElements(indexKey, key, project, scope, requiredClass, processor);
   }
 
+  /**
+   * Processes elements for several keys of one index at once, passing each element together with its key.
+   * Implementations may read the stub tree of every containing file only once, no matter how many of the {@code keys} the file has,
+   * so prefer this to calling {@link #processElements} for each key when there are many keys, e.g. all names matching a goto pattern.
+   */
+  public <Key, Psi extends PsiElement> boolean processElementsForKeys(@Nonnull StubIndexKey<Key, Psi> indexKey,
+                                                                      @Nonnull Collection<? extends Key> keys,
+                                                                      @Nonnull Project project,
+                                                                      @Nullable ProjectAwareSearchScope scope,
+                                                                      @Nullable IdFilter idFilter,
+                                                                      @Nonnull Class<Psi> requiredClass,
+                                                                      @Nonnull BiPredicate<? super Key, ? super Psi> processor) {
+    for (Key key : keys) {
+      if (!processElements(indexKey, key, project, scope, idFilter, requiredClass, psi -> processor.test(key, psi))) return false;
+    }
+    return true;
+  }
+
   @Nonnull
   public abstract <Key> Collection<Key> getAllKeys(@Nonnull StubIndexKey<Key, ?> indexKey, @Nonnull Project project);
 
@@ -150,14 +150,22 @@ public class LexerEditorHighlighter implements EditorHighlighter, PrioritizedDoc
     return document == null || document.getTextLength() == 0 || mySegments.getSegmentCount() > 0;
   }
 
-  private boolean isInitialState(int data) {
+  /**
+   * @return index of the closest segment at or before the given one the lexer can be restarted from, or 0 if there is none
+   */
+  private int findRestartSegmentIndex(int startIndex) {
     if (myLexer instanceof RestartableLexer) {
-      int state = mySegments.unpackStateFromData(data);
-      return ((RestartableLexer)myLexer).isRestartableState(state);
+      RestartableLexer lexer = (RestartableLexer)myLexer;
+      while (startIndex > 0 && !lexer.isRestartableState(mySegments.unpackStateFromData(mySegments.getSegmentData(startIndex)))) {
+        startIndex--;
+      }
     }
     else {
-      return data >= 0;
+      while (startIndex > 0 && mySegments.getSegmentData(startIndex) < 0) {
+        startIndex--;
+      }
     }
+    return startIndex;
   }
 
   @Override
@@ -182,15 +190,8 @@ public class LexerEditorHighlighter implements EditorHighlighter, PrioritizedDoc
 
       final int segmentIndex = mySegments.findSegmentIndex(oldStartOffset) - 2;
       final int oldStartIndex = Math.max(0, segmentIndex);
-      int startIndex = oldStartIndex;
-
-      int data;
-      do {
-        data = mySegments.getSegmentData(startIndex);
-        if (isInitialState(data) || startIndex == 0) break;
-        startIndex--;
-      }
-      while (true);
+      int startIndex = findRestartSegmentIndex(oldStartIndex);
+      int data = mySegments.getSegmentData(startIndex);
 
       int startOffset = mySegments.getSegmentStart(startIndex);
 
@@ -503,15 +504,9 @@ public class LexerEditorHighlighter implements EditorHighlighter, PrioritizedDoc
     if (offset > 0 && mySegments.getSegmentCount() > 0) {
       final int segmentIndex = mySegments.findSegmentIndex(offset - 1) - 2;
       oldStartIndex = Math.max(0, segmentIndex);
-      startIndex = oldStartIndex;
-
-      do {
-        data = mySegments.getSegmentData(startIndex);
-        isDataSet = true;
-        if (isInitialState(data) || startIndex == 0) break;
-        startIndex--;
-      }
-      while (true);
+      startIndex = findRestartSegmentIndex(oldStartIndex);
+      data = mySegments.getSegmentData(startIndex);
+      isDataSet = true;
 
       startOffset = mySegments.getSegmentStart(startIndex);
     }
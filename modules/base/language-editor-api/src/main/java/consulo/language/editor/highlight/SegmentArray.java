@@ -147,11 +147,17 @@ public class SegmentArray {
   }
 
   public final void shiftSegments(int startIndex, int shift) {
+    if (shift == 0) return;
+    int[] starts = myStarts;
+    int[] ends = myEnds;
     for (int i = startIndex; i < mySegmentCount; i++) {
-      myStarts[i] += shift;
-      myEnds[i] += shift;
-      if (myStarts[i] < 0 || myEnds[i] < 0) {
-        LOG.error("Error shifting segments: myStarts[" + i + "] = " + myStarts[i] + ", myEnds[" + i + "] = " + myEnds[i]);
+      starts[i] += shift;
+      ends[i] += shift;
+    }
+    // segments are sorted and don't overlap, so only the first shifted one can become negative on a negative shift
+    if (shift < 0 && startIndex >= 0 && startIndex < mySegmentCount) {
+      for (int i = startIndex; i < mySegmentCount && (starts[i] < 0 || ends[i] < 0); i++) {
+        LOG.error("Error shifting segments: myStarts[" + i + "] = " + starts[i] + ", myEnds[" + i + "] = " + ends[i]);
       }
     }
   }
@@ -84,6 +84,19 @@ public abstract class LocalInspectionTool extends InspectionTool {
     return false;
   }
 
+  /**
+   * Override this method and return true if problems reported when your visitor visits an element depend only on that element and its subtree,
+   * not on other code of the file or project, nor on the {@link LocalInspectionToolSession}.
+   * <p/>
+   * During on the fly highlighting, problems of such inspection are reused for every element which wasn't changed since the previous run,
+   * so the visitor is called only for changed elements and their parents.
+   *
+   * @return true if problems found for an element may be reused until the element subtree is changed.
+   */
+  public boolean isLocalToElement() {
+    return false;
+  }
+
   /**
    * Override this to report problems at file level.
    *
@@ -16,36 +16,94 @@
 package consulo.language.editor.impl.internal.highlight;
 
 import consulo.codeEditor.markup.RangeHighlighter;
-import consulo.document.util.ProperTextRange;
-import consulo.document.util.TextRange;
-import consulo.util.collection.MultiMap;
 import jakarta.annotation.Nonnull;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 
+/**
+ * Keeps highlighters removed by a highlighting pass so that highlighters with the same range and layer can be reused for the new infos.
+ * Recycled highlighters usually arrive sorted by offset, as do the pickups, so they are kept in one array sorted by range
+ * and looked up with a binary search instead of allocating a range key per highlighter.
+ */
 public class HighlightersRecycler {
-  private final MultiMap<TextRange, RangeHighlighter> incinerator = new MultiMap<>();
+  private static final Comparator<Recycled> BY_RANGE = Comparator.comparingLong(r -> r.range);
+
+  private final List<Recycled> myRecycled = new ArrayList<>();
+  private boolean mySorted = true;
+  private int myPickedCount;
+
+  private static class Recycled {
+    private final long range;
+    private final RangeHighlighter highlighter;
+    private boolean picked;
+
+    private Recycled(long range, @Nonnull RangeHighlighter highlighter) {
+      this.range = range;
+      this.highlighter = highlighter;
+    }
+  }
+
+  private static long packRange(int startOffset, int endOffset) {
+    return ((long)startOffset << 32) | (endOffset & 0xFFFFFFFFL);
+  }
 
   public void recycleHighlighter(@Nonnull RangeHighlighter highlighter) {
     if (highlighter.isValid()) {
-      incinerator.putValue(ProperTextRange.create(highlighter), highlighter);
+      Recycled recycled = new Recycled(packRange(highlighter.getStartOffset(), highlighter.getEndOffset()), highlighter);
+      int size = myRecycled.size();
+      if (mySorted && size != 0 && myRecycled.get(size - 1).range > recycled.range) {
+        mySorted = false;
+      }
+      myRecycled.add(recycled);
     }
   }
 
   public RangeHighlighter pickupHighlighterFromGarbageBin(int startOffset, int endOffset, int layer) {
-    TextRange range = new TextRange(startOffset, endOffset);
-    Collection<RangeHighlighter> collection = incinerator.get(range);
-    for (RangeHighlighter highlighter : collection) {
-      if (highlighter.isValid() && highlighter.getLayer() == layer) {
-        incinerator.remove(range, highlighter);
+    if (myPickedCount == myRecycled.size()) return null;
+    if (!mySorted) {
+      myRecycled.sort(BY_RANGE);
+      mySorted = true;
+    }
+    long range = packRange(startOffset, endOffset);
+    for (int i = firstIndexOf(range); i < myRecycled.size(); i++) {
+      Recycled recycled = myRecycled.get(i);
+      if (recycled.range != range) break;
+      RangeHighlighter highlighter = recycled.highlighter;
+      if (!recycled.picked && highlighter.isValid() && highlighter.getLayer() == layer) {
+        recycled.picked = true;
+        myPickedCount++;
         return highlighter;
       }
     }
     return null;
   }
 
+  private int firstIndexOf(long range) {
+    int low = 0;
+    int high = myRecycled.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (myRecycled.get(mid).range < range) {
+        low = mid + 1;
+      }
+      else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
   @Nonnull
   public Collection<? extends RangeHighlighter> forAllInGarbageBin() {
-    return incinerator.values();
+    List<RangeHighlighter> result = new ArrayList<>(myRecycled.size() - myPickedCount);
+    for (Recycled recycled : myRecycled) {
+      if (!recycled.picked) {
+        result.add(recycled.highlighter);
+      }
+    }
+    return result;
   }
 }
@@ -35,6 +35,9 @@ import java.util.Map;
 public final class DefaultHighlightVisitor implements HighlightVisitor {
   private AnnotationHolderImpl myAnnotationHolder;
   private final Map<Language, List<Annotator>> myAnnotators = ConcurrentFactoryMap.createMap(this::createAnnotators);
+  // elements come in runs of the same language, so the last lookup is usually the next one as well
+  private Language myLastLanguage;
+  private List<Annotator> myLastAnnotators;
   private final Project myProject;
   private final boolean myHighlightErrorElements;
   private final boolean myRunAnnotators;
@@ -83,6 +86,8 @@ public final class DefaultHighlightVisitor implements HighlightVisitor {
     }
     finally {
       myAnnotators.clear();
+      myLastLanguage = null;
+      myLastAnnotators = null;
       myHolder = null;
       myAnnotationHolder = null;
       myAnnotatorStatisticsCollector.reportAnalysisFinished(myProject, holder.getAnnotationSession(), file);
@@ -103,7 +108,7 @@ public final class DefaultHighlightVisitor implements HighlightVisitor {
 
   @RequiredReadAction
   private void runAnnotators(@Nonnull PsiElement element) {
-    List<Annotator> annotators = myAnnotators.get(element.getLanguage());
+    List<Annotator> annotators = getAnnotators(element.getLanguage());
     if (!annotators.isEmpty()) {
       AnnotationHolderImpl holder = myAnnotationHolder;
       holder.myCurrentElement = element;
@@ -121,6 +126,15 @@ public final class DefaultHighlightVisitor implements HighlightVisitor {
     }
   }
 
+  @Nonnull
+  private List<Annotator> getAnnotators(@Nonnull Language language) {
+    if (language != myLastLanguage) {
+      myLastAnnotators = myAnnotators.get(language);
+      myLastLanguage = language;
+    }
+    return myLastAnnotators;
+  }
+
   @RequiredReadAction
   private void visitErrorElement(@Nonnull PsiErrorElement element) {
     if (HighlightErrorFilter.EP_NAME.findFirstSafe(myProject, filter -> !filter.shouldHighlightErrorElement(element)) != null) {
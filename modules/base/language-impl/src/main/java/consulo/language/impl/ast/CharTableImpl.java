@@ -31,7 +31,7 @@ import java.lang.reflect.Modifier;
  * @author max
  */
 public class CharTableImpl implements CharTable {
-  private static final int INTERN_THRESHOLD = 40; // 40 or more characters long tokens won't be interned.
+  public static final int INTERN_THRESHOLD = 40; // 40 or more characters long tokens won't be interned.
 
   private static final StringHashToCharSequencesMap STATIC_ENTRIES = newStaticSet();
   private final StringHashToCharSequencesMap entries = new StringHashToCharSequencesMap();
@@ -106,6 +106,11 @@ public class CharTableImpl implements CharTable {
     return STATIC_ENTRIES.get(text);
   }
 
+  @Nullable
+  public static CharSequence getStaticInterned(@Nonnull CharSequence text, int startOffset, int endOffset) {
+    return STATIC_ENTRIES.get(text, startOffset, endOffset);
+  }
+
   public static void staticIntern(@Nonnull String text) {
     synchronized (STATIC_ENTRIES) {
       STATIC_ENTRIES.add(text);
@@ -16,6 +16,7 @@
 
 package consulo.language.impl.internal.ast;
 
+import consulo.language.impl.ast.CharTableImpl;
 import consulo.language.util.CharTable;
 import jakarta.annotation.Nonnull;
 
@@ -37,7 +38,13 @@ public class IdentityCharTable implements CharTable {
   @Nonnull
   @Override
   public CharSequence intern(@Nonnull CharSequence baseText, int startOffset, int endOffset) {
+    // punctuation and indents are shared by all trees instead of being allocated per leaf
+    if (endOffset - startOffset <= CharTableImpl.INTERN_THRESHOLD) {
+      CharSequence interned = CharTableImpl.getStaticInterned(baseText, startOffset, endOffset);
+      if (interned != null) return interned;
+    }
     if (endOffset - startOffset == baseText.length()) return baseText.toString();
-    return baseText.subSequence(startOffset, endOffset);
+    // a compact String copy, so a leaf never pins the whole base text like a subSequence view could
+    return baseText.subSequence(startOffset, endOffset).toString();
   }
 }
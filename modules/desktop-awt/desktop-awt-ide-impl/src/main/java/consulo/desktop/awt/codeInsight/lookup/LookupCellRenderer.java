@@ -64,6 +64,7 @@ public class LookupCellRenderer implements ListCellRenderer {
   private static final Key<Font> CUSTOM_NAME_FONT = Key.create("CustomLookupElementNameFont");
   private static final Key<Font> CUSTOM_TAIL_FONT = Key.create("CustomLookupElementTailFont");
   private static final Key<Font> CUSTOM_TYPE_FONT = Key.create("CustomLookupElementTypeFont");
+  private static final Key<MeasuredPresentation> MEASURED_PRESENTATION = Key.create("MeasuredLookupElementPresentation");
 
   private final Font myNormalFont;
   private final Font myBoldFont;
@@ -533,13 +534,7 @@ public class LookupCellRenderer implements ListCellRenderer {
 
     int maxWidth = myShrinkLookup ? 0 : myLookupTextWidth;
     for (var item : visibleItems) {
-      LookupElementPresentation presentation = myAsyncRendering.getLastComputed(item);
-
-      item.putUserData(CUSTOM_NAME_FONT, getFontAbleToDisplay(presentation.getItemText()));
-      item.putUserData(CUSTOM_TAIL_FONT, getFontAbleToDisplay(presentation.getTailText()));
-      item.putUserData(CUSTOM_TYPE_FONT, getFontAbleToDisplay(presentation.getTypeText()));
-
-      int itemWidth = updateMaximumWidth(presentation, item);
+      int itemWidth = getItemWidth(item);
       if (itemWidth > maxWidth) {
         maxWidth = itemWidth;
       }
@@ -554,6 +549,29 @@ public class LookupCellRenderer implements ListCellRenderer {
     }
   }
 
+  /**
+   * Fonts and width only change with the presentation, so they are measured once per computed presentation
+   * instead of on every width update while the lookup is scrolled or items are added.
+   */
+  private int getItemWidth(@Nonnull LookupElement item) {
+    LookupElementPresentation presentation = myAsyncRendering.getLastComputed(item);
+    Font customFont = myLookup.getCustomFont(item, false);
+    MeasuredPresentation measured = item.getUserData(MEASURED_PRESENTATION);
+    if (measured != null && measured.myPresentation == presentation && measured.myCustomFont == customFont) {
+      return measured.myWidth;
+    }
+
+    if (measured == null || measured.myPresentation != presentation) {
+      item.putUserData(CUSTOM_NAME_FONT, getFontAbleToDisplay(presentation.getItemText()));
+      item.putUserData(CUSTOM_TAIL_FONT, getFontAbleToDisplay(presentation.getTailText()));
+      item.putUserData(CUSTOM_TYPE_FONT, getFontAbleToDisplay(presentation.getTypeText()));
+    }
+
+    int width = updateMaximumWidth(presentation, item);
+    item.putUserData(MEASURED_PRESENTATION, new MeasuredPresentation(presentation, customFont, width));
+    return width;
+  }
+
   void itemAdded(@Nonnull LookupElement element, @Nonnull LookupElementPresentation fastPresentation) {
     updateIconWidth(fastPresentation.getIcon());
     scheduleUpdateLookupWidthFromVisibleItems();
@@ -623,4 +641,17 @@ public class LookupCellRenderer implements ListCellRenderer {
       }
     }
   }
+
+  private static final class MeasuredPresentation {
+    private final LookupElementPresentation myPresentation;
+    @Nullable
+    private final Font myCustomFont;
+    private final int myWidth;
+
+    private MeasuredPresentation(LookupElementPresentation presentation, @Nullable Font customFont, int width) {
+      myPresentation = presentation;
+      myCustomFont = customFont;
+      myWidth = width;
+    }
+  }
 }
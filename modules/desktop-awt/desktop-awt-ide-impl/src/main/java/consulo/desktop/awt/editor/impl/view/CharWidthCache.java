@@ -5,15 +5,23 @@ import consulo.codeEditor.impl.ComplementaryFontsRegistry;
 import gnu.trove.TIntFloatHashMap;
 import org.intellij.lang.annotations.JdkConstants;
 
+import java.awt.*;
+import java.util.Arrays;
+
 /**
- * Cache of char widths for different font styles
+ * Cache of char widths for different font styles.
+ * Latin-1 code points are kept in a flat array, other code points go to a hash map.
  */
 class CharWidthCache {
   private static final int CACHE_SIZE_LIMIT = 1024;
   private static final float SHIFT = 1f;
+  private static final int DENSE_CODE_POINT_LIMIT = 256;
+  private static final int FONT_STYLE_COUNT = (Font.BOLD | Font.ITALIC) + 1;
 
   private final EditorView myView;
   private final TIntFloatHashMap myCache = new TIntFloatHashMap();
+  // same encoding as values in myCache: width + SHIFT, zero means 'not cached'
+  private final float[] myDenseCache = new float[FONT_STYLE_COUNT * DENSE_CODE_POINT_LIMIT];
 
   CharWidthCache(EditorView view) {
     myView = view;
@@ -21,18 +29,32 @@ class CharWidthCache {
 
   void clear() {
     myCache.clear();
+    Arrays.fill(myDenseCache, 0);
   }
 
   float getCodePointWidth(int codePoint, @JdkConstants.FontStyle int fontStyle) {
+    if (codePoint >= 0 && codePoint < DENSE_CODE_POINT_LIMIT && fontStyle >= 0 && fontStyle < FONT_STYLE_COUNT) {
+      int index = fontStyle * DENSE_CODE_POINT_LIMIT + codePoint;
+      float width = myDenseCache[index] - SHIFT;
+      if (width < 0) {
+        width = computeWidth(codePoint, fontStyle);
+        myDenseCache[index] = width + SHIFT;
+      }
+      return width;
+    }
     int key = createKey(codePoint, fontStyle);
     float width = getCachedValue(key);
     if (width < 0) {
-      width = ComplementaryFontsRegistry.getFontAbleToDisplay(codePoint, fontStyle, myView.getEditor().getColorsScheme().getFontPreferences(), myView.getFontRenderContext()).charWidth2D(codePoint);
+      width = computeWidth(codePoint, fontStyle);
       saveInCache(key, width);
     }
     return width;
   }
 
+  private float computeWidth(int codePoint, @JdkConstants.FontStyle int fontStyle) {
+    return ComplementaryFontsRegistry.getFontAbleToDisplay(codePoint, fontStyle, myView.getEditor().getColorsScheme().getFontPreferences(), myView.getFontRenderContext()).charWidth2D(codePoint);
+  }
+
   /**
    * @return a negative value, if there's no value in cache
    */
@@ -29,6 +29,8 @@ import consulo.sandboxPlugin.lang.psi.stub.SandIndexKeys;
 
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
+import java.util.Collection;
+import java.util.function.BiPredicate;
 
 /**
  * @author VISTALL
@@ -46,4 +48,12 @@ public class SandClassContributor implements GotoClassOrTypeContributor {
     StubIndex.getInstance()
             .processElements(SandIndexKeys.SAND_CLASSES, name, parameters.getProject(), (GlobalSearchScope)parameters.getSearchScope(), parameters.getIdFilter(), SandClass.class, processor);
   }
+
+  @Override
+  public void processElementsWithNames(@Nonnull Collection<String> names,
+                                       @Nonnull BiPredicate<? super String, ? super NavigationItem> processor,
+                                       @Nonnull FindSymbolParameters parameters) {
+    StubIndex.getInstance()
+            .processElementsForKeys(SandIndexKeys.SAND_CLASSES, names, parameters.getProject(), (GlobalSearchScope)parameters.getSearchScope(), parameters.getIdFilter(), SandClass.class, processor);
+  }
 }